@@ -0,0 +1,126 @@
+package com.github.xqiii.cache.benchmark;
+
+import com.github.xqiii.cache.GithubRepoCacheApplication;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.RepositoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database lookup and cache hit path against a populated H2 table
+ *
+ * The application context is started without a web server and the table is
+ * filled with {@code rows} repositories in one set-based insert. Keys are drawn
+ * from a precomputed random sample so key construction is not measured.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RepositoryLookupBenchmark {
+
+    private static final int OWNERS = 1000;
+    private static final int SAMPLE_SIZE = 4096;
+
+    @Param("1000000")
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private RepositoryRepository repositoryRepository;
+    private RepositoryService repositoryService;
+
+    private final String[] owners = new String[SAMPLE_SIZE];
+    private final String[] repositoryNames = new String[SAMPLE_SIZE];
+    private final String[] cacheKeys = new String[SAMPLE_SIZE];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(GithubRepoCacheApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.root=WARN",
+                "logging.level.com.github.xqiii.cache=WARN"
+            )
+            .run();
+        repositoryRepository = context.getBean(RepositoryRepository.class);
+        repositoryService = context.getBean(RepositoryService.class);
+
+        context.getBean(JdbcTemplate.class).update(
+            "INSERT INTO repositories (cache_key, owner, repository_name, full_name, description, clone_url, "
+                + "stars, created_at, fetched_at) "
+                + "SELECT 'owner-' || MOD(X, " + OWNERS + ") || '/repo-' || X, "
+                + "'owner-' || MOD(X, " + OWNERS + "), 'repo-' || X, "
+                + "'owner-' || MOD(X, " + OWNERS + ") || '/repo-' || X, 'Benchmark repository ' || X, "
+                + "'https://github.com/owner-' || MOD(X, " + OWNERS + ") || '/repo-' || X || '.git', "
+                + "CAST(MOD(X, 50000) AS INT), TIMESTAMP '2020-01-01 00:00:00', CURRENT_TIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?)", rows);
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            long id = random.nextLong(1, rows + 1L);
+            owners[i] = "owner-" + (id % OWNERS);
+            repositoryNames[i] = "repo-" + id;
+            cacheKeys[i] = RepositoryKey.of(owners[i], repositoryNames[i]).value();
+            // Warm the in-memory tier so the hit path never reaches the database
+            repositoryService.getRepositoryDetails(owners[i], repositoryNames[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Indexed lookup through Spring Data JPA, including entity hydration
+     */
+    @Benchmark
+    public Optional<RepositoryEntity> findByCacheKey() {
+        int i = nextIndex();
+        return repositoryRepository.findByCacheKey(cacheKeys[i]);
+    }
+
+    /**
+     * Full hit path: popularity, L1 lookup, freshness check and metrics
+     */
+    @Benchmark
+    public RepositoryResponse repositoryServiceHit() {
+        int i = nextIndex();
+        return repositoryService.getRepositoryDetails(owners[i], repositoryNames[i]);
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (SAMPLE_SIZE - 1);
+        return next;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.xqiii.cache.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping cost of a GitHub payload on its way into and out of the cache
+ *
+ * The payload is a full REST repository response (~6 KB), so Jackson has to
+ * skip the many fields {@link GithubApiResponse} does not map.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryMappingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] payload;
+    private GithubApiResponse githubResponse;
+    private RepositoryEntity entity;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = RepositoryMappingBenchmark.class.getResourceAsStream("/github-repository.json")) {
+            payload = in.readAllBytes();
+        }
+        githubResponse = objectMapper.readValue(payload, GithubApiResponse.class);
+        entity = RepositoryEntity.fromGithubApiResponse("octocat", "Hello-World", githubResponse);
+    }
+
+    @Benchmark
+    public GithubApiResponse deserializePayload() throws IOException {
+        return objectMapper.readValue(payload, GithubApiResponse.class);
+    }
+
+    /**
+     * Includes the {@code ZonedDateTime.parse} of {@code created_at}
+     */
+    @Benchmark
+    public RepositoryEntity fromGithubApiResponse() {
+        return RepositoryEntity.fromGithubApiResponse("octocat", "Hello-World", githubResponse);
+    }
+
+    @Benchmark
+    public RepositoryResponse toResponse() {
+        return entity.toResponse();
+    }
+
+    /**
+     * Everything a miss does between the HTTP body and the cache entry, short of the database
+     */
+    @Benchmark
+    public RepositoryResponse payloadToResponse() throws IOException {
+        GithubApiResponse response = objectMapper.readValue(payload, GithubApiResponse.class);
+        return RepositoryEntity.fromGithubApiResponse("octocat", "Hello-World", response).toResponse();
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.xqiii.cache.client;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * One GitHub credential with its own rate-limit budget
+ *
+ * The anonymous credential has no token and is only used when
+ * {@code github.api.tokens} is empty or every token has been taken out of rotation.
+ * A token is only taken out for a while, so one GitHub rejected by mistake or
+ * that was re-authorized comes back on its own.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public class GithubCredential {
+
+    private final String name;
+    private final String token;
+    private final RateLimitState rateLimitState = new RateLimitState();
+    private volatile long disabledUntilMillis;
+
+    GithubCredential(String name, String token) {
+        this.name = name;
+        this.token = token;
+    }
+
+    static GithubCredential anonymous() {
+        return new GithubCredential("anonymous", null);
+    }
+
+    /**
+     * Add the Authorization header for this credential, if it has a token
+     */
+    public void authorize(HttpHeaders headers) {
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+    }
+
+    /**
+     * Label safe to log: never contains the token itself
+     */
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return isEnabled(System.currentTimeMillis());
+    }
+
+    boolean isEnabled(long nowMillis) {
+        return nowMillis >= disabledUntilMillis;
+    }
+
+    /**
+     * Take the credential out of rotation until the given time
+     */
+    void disableUntil(long untilMillis) {
+        disabledUntilMillis = untilMillis;
+    }
+
+    RateLimitState getRateLimitState() {
+        return rateLimitState;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,240 @@
+package com.github.xqiii.cache.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared HTTP client for all GitHub calls
+ *
+ * The backend is selected with {@code github.api.client.backend}:
+ * <ul>
+ *   <li>{@code apache} (default): Apache HttpClient 5 with a pooling connection
+ *   manager capped at {@code max-connections}, idle connection eviction and pool stats</li>
+ *   <li>{@code jdk}: JDK {@link HttpClient} negotiating HTTP/2. Its keep-alive pool
+ *   is the JDK's own: not capped, not reported, and only tunable JVM-wide through
+ *   {@code -Djdk.httpclient.*} flags, so {@code max-connections} and
+ *   {@code idle-timeout} do not apply</li>
+ *   <li>{@code simple}: {@code HttpURLConnection}, kept for compatibility</li>
+ * </ul>
+ *
+ * Every attempt is timed under {@code github.upstream.requests}, tagged with the
+ * API (rest or graphql) and the response status, when a meter registry is present.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class GithubHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(GithubHttpClient.class);
+
+    public enum Backend {
+        JDK,
+        APACHE,
+        SIMPLE
+    }
+
+    private final Backend backend;
+    private final ClientHttpRequestFactory requestFactory;
+    private final PoolingHttpClientConnectionManager apacheConnectionManager;
+    private final CloseableHttpClient apacheHttpClient;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+
+    public GithubHttpClient(@Value("${github.api.client.backend:apache}") String backend,
+                            @Value("${github.api.connect-timeout:5000}") int connectTimeout,
+                            @Value("${github.api.read-timeout:10000}") int readTimeout,
+                            @Value("${github.api.client.max-connections:50}") int maxConnections,
+                            @Value("${github.api.client.idle-timeout:PT30S}") Duration idleTimeout) {
+        this.backend = Backend.valueOf(backend.trim().toUpperCase(Locale.ROOT));
+
+        switch (this.backend) {
+            case JDK -> {
+                HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeout))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+                JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+                factory.setReadTimeout(readTimeout);
+                this.requestFactory = factory;
+                this.apacheConnectionManager = null;
+                this.apacheHttpClient = null;
+            }
+            case SIMPLE -> {
+                SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+                factory.setConnectTimeout(connectTimeout);
+                factory.setReadTimeout(readTimeout);
+                this.requestFactory = factory;
+                this.apacheConnectionManager = null;
+                this.apacheHttpClient = null;
+            }
+            default -> {
+                this.apacheConnectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(maxConnections)
+                    .setMaxConnPerRoute(maxConnections)
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                    .build();
+                this.apacheHttpClient = HttpClients.custom()
+                    .setConnectionManager(apacheConnectionManager)
+                    .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()))
+                    .evictExpiredConnections()
+                    .build();
+                this.requestFactory = new HttpComponentsClientHttpRequestFactory(apacheHttpClient);
+            }
+        }
+        if (this.backend == Backend.APACHE) {
+            logger.info("GitHub HTTP client backend: {} (max connections: {}, idle timeout: {})",
+                this.backend, maxConnections, idleTimeout);
+        } else {
+            logger.info("GitHub HTTP client backend: {} (connections not pooled by this client, "
+                + "max-connections and idle-timeout ignored)", this.backend);
+        }
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Create a RestTemplate on the shared connection pool, with request metrics
+     */
+    public RestTemplate newRestTemplate() {
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(new MetricsInterceptor());
+        return restTemplate;
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    /**
+     * Connections currently leased from the pool, or -1 if the backend does not expose pool stats
+     */
+    public int getLeasedConnections() {
+        PoolStats stats = poolStats();
+        return stats != null ? stats.getLeased() : -1;
+    }
+
+    /**
+     * Idle keep-alive connections in the pool, or -1 if the backend does not expose pool stats
+     */
+    public int getAvailableConnections() {
+        PoolStats stats = poolStats();
+        return stats != null ? stats.getAvailable() : -1;
+    }
+
+    /**
+     * Requests waiting for a pooled connection, or -1 if the backend does not expose pool stats
+     */
+    public int getPendingConnections() {
+        PoolStats stats = poolStats();
+        return stats != null ? stats.getPending() : -1;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (apacheHttpClient != null) {
+            apacheHttpClient.close();
+        }
+    }
+
+    private PoolStats poolStats() {
+        return apacheConnectionManager != null ? apacheConnectionManager.getTotalStats() : null;
+    }
+
+    private void recordRequest(HttpRequest request, String status, long elapsedNanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        String api = request.getURI().getPath().endsWith("/graphql") ? "graphql" : "rest";
+        requestTimers.computeIfAbsent(api + ":" + status, key -> Timer.builder("github.upstream.requests")
+                .description("GitHub API calls by API and response status")
+                .tag("api", api)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry))
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private class MetricsInterceptor implements ClientHttpRequestInterceptor {
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                            ClientHttpRequestExecution execution) throws IOException {
+            requestCount.incrementAndGet();
+            inFlightRequests.incrementAndGet();
+            long start = System.nanoTime();
+            String status = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = String.valueOf(response.getStatusCode().value());
+                return response;
+            } catch (IOException | RuntimeException e) {
+                failureCount.incrementAndGet();
+                throw e;
+            } finally {
+                inFlightRequests.decrementAndGet();
+                recordRequest(request, status, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.github.xqiii.cache.client;
+
+import com.github.xqiii.cache.client.RateLimitState.Reservation;
+import com.github.xqiii.cache.exception.RateLimitedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rate-limit-aware scheduling of GitHub calls across a pool of credentials
+ *
+ * Sits between the services and the HTTP client: every call reserves budget on
+ * one credential first and every response feeds its X-RateLimit-* / Retry-After
+ * headers back into that credential. Calls go to the token with the most
+ * remaining budget, so throughput grows with the number of tokens in
+ * {@code github.api.tokens}; a token GitHub rejects as such is taken out of
+ * rotation for {@code github.api.rate-limit.token-disable-duration}. A 403
+ * about one resource (SAML enforcement, missing repository access) says
+ * nothing about the token and leaves it in rotation. Background refreshes only spend the budget above
+ * {@code github.api.rate-limit.background-reserve} and are spread until the
+ * reset, leaving the reserve to user-facing misses. When every budget is gone,
+ * calls fail fast with GITHUB_RATE_LIMITED instead of waiting for timeouts.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class GithubRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GithubRateLimiter.class);
+
+    /**
+     * 403 messages GitHub uses when the token or its account is refused, not one resource
+     */
+    private static final List<String> CREDENTIAL_REJECTED_MESSAGES = List.of(
+        "bad credentials", "token has expired", "account was suspended", "account is suspended");
+
+    private final List<GithubCredential> credentials;
+    private final GithubCredential anonymous = GithubCredential.anonymous();
+    private final AtomicInteger rotation = new AtomicInteger();
+    private final double backgroundReserveRatio;
+    private final long maxPacingDelayMillis;
+    private final long tokenDisableMillis;
+
+    public GithubRateLimiter(@Value("${github.api.tokens:}") List<String> tokens,
+                             @Value("${github.api.rate-limit.background-reserve:0.2}") double backgroundReserveRatio,
+                             @Value("${github.api.rate-limit.max-pacing-delay-ms:1000}") long maxPacingDelayMillis,
+                             @Value("${github.api.rate-limit.token-disable-duration:PT10M}")
+                             Duration tokenDisableDuration) {
+        this.credentials = new ArrayList<>();
+        for (String token : tokens) {
+            if (token != null && !token.isBlank()) {
+                credentials.add(new GithubCredential("token-" + (credentials.size() + 1), token.trim()));
+            }
+        }
+        this.backgroundReserveRatio = backgroundReserveRatio;
+        this.maxPacingDelayMillis = maxPacingDelayMillis;
+        this.tokenDisableMillis = tokenDisableDuration.toMillis();
+        if (credentials.isEmpty()) {
+            logger.warn("No GitHub tokens configured, using unauthenticated requests");
+        } else {
+            logger.info("GitHub token pool: {} tokens", credentials.size());
+        }
+    }
+
+    /**
+     * Reserve budget for one call at the current thread's priority, waiting if it is paced
+     *
+     * @return the credential the call must be sent with
+     * @throws RateLimitedException if no credential can make the call before its budget resets
+     */
+    public GithubCredential acquire() {
+        UpstreamPriority priority = UpstreamPriority.current();
+        long now = System.currentTimeMillis();
+        long retryAfterMillis = Long.MAX_VALUE;
+        for (GithubCredential credential : candidates()) {
+            Reservation reservation = credential.getRateLimitState().reserve(priority, now,
+                backgroundReserveRatio, maxPacingDelayMillis);
+            if (reservation.permitted()) {
+                if (reservation.waitMillis() > 0) {
+                    sleep(reservation.waitMillis());
+                }
+                return credential;
+            }
+            retryAfterMillis = Math.min(retryAfterMillis, reservation.retryAfterMillis());
+        }
+        long retryAfterSeconds = toSeconds(retryAfterMillis);
+        logger.warn("GitHub rate limit budget exhausted for {} call, retry after {}s", priority, retryAfterSeconds);
+        throw new RateLimitedException(
+            "GitHub API rate limit exhausted, retry after " + retryAfterSeconds + "s",
+            retryAfterSeconds
+        );
+    }
+
+    /**
+     * Reserve one more call on the given credential without waiting, for a hedge of a call it already made
+     *
+     * A hedge is an extra the call can do without, so it is reserved like a background
+     * call: it never spends the reserve kept for user-facing misses.
+     *
+     * @return whether the hedge may be sent
+     */
+    public boolean tryAcquireHedge(GithubCredential credential) {
+        if (!credential.isEnabled()) {
+            return false;
+        }
+        return credential.getRateLimitState().reserve(UpstreamPriority.BACKGROUND, System.currentTimeMillis(),
+            backgroundReserveRatio, 0).permitted();
+    }
+
+    /**
+     * Credential with the most remaining budget, without reserving any
+     */
+    public GithubCredential currentCredential() {
+        return candidates().get(0);
+    }
+
+    /**
+     * Record the budget reported by a GitHub response to a call made with the given credential
+     */
+    public void update(GithubCredential credential, HttpHeaders headers) {
+        credential.getRateLimitState().update(headers, System.currentTimeMillis());
+    }
+
+    /**
+     * Whether the last response told us the credential's budget is gone
+     */
+    public boolean isExhausted(GithubCredential credential) {
+        return credential.getRateLimitState().isExhausted(System.currentTimeMillis());
+    }
+
+    /**
+     * Whether an error response rejects the credential itself rather than the one request
+     *
+     * Always true for 401. A 403 only counts when its message is about the token or its
+     * account; SAML enforcement ({@code X-GitHub-SSO}), missing permissions and blocked
+     * repositories are per-resource and another token would not fare differently.
+     */
+    public static boolean isCredentialRejected(int status, HttpHeaders headers, String body) {
+        if (status == HttpStatus.UNAUTHORIZED.value()) {
+            return true;
+        }
+        if (status != HttpStatus.FORBIDDEN.value() || body == null
+                || (headers != null && headers.containsKey("X-GitHub-SSO"))) {
+            return false;
+        }
+        String message = body.toLowerCase(Locale.ROOT);
+        return CREDENTIAL_REJECTED_MESSAGES.stream().anyMatch(message::contains);
+    }
+
+    /**
+     * Take a token that GitHub rejected out of rotation for the configured duration
+     *
+     * @return whether another credential is left to retry with
+     */
+    public boolean disable(GithubCredential credential, int status) {
+        if (credential == anonymous) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (credential.isEnabled(now)) {
+            credential.disableUntil(now + tokenDisableMillis);
+            logger.error("GitHub rejected {} with status {}, removed from rotation for {} ({} of {} tokens left)",
+                credential, status, Duration.ofMillis(tokenDisableMillis), getEnabledTokenCount(),
+                credentials.size());
+        }
+        return true;
+    }
+
+    public int getTokenCount() {
+        return credentials.size();
+    }
+
+    public int getEnabledTokenCount() {
+        long now = System.currentTimeMillis();
+        return (int) credentials.stream().filter(credential -> credential.isEnabled(now)).count();
+    }
+
+    /**
+     * Remaining budget summed over the credentials in rotation, -1 until GitHub has reported one
+     */
+    public long getRemaining() {
+        return sum(enabledCredentials(), RateLimitState::getRemaining);
+    }
+
+    public long getLimit() {
+        return sum(enabledCredentials(), RateLimitState::getLimit);
+    }
+
+    /**
+     * Credentials in rotation, most remaining budget first
+     *
+     * A credential GitHub has not reported on yet ranks first so every token gets
+     * probed; ties are rotated so concurrent callers do not pile onto one token.
+     */
+    private List<GithubCredential> candidates() {
+        List<GithubCredential> enabled = enabledCredentials();
+        if (enabled.size() > 1) {
+            int offset = Math.floorMod(rotation.getAndIncrement(), enabled.size());
+            List<GithubCredential> rotated = new ArrayList<>(enabled.size());
+            rotated.addAll(enabled.subList(offset, enabled.size()));
+            rotated.addAll(enabled.subList(0, offset));
+            rotated.sort(Comparator.comparingLong(GithubRateLimiter::rankedRemaining).reversed());
+            return rotated;
+        }
+        return enabled;
+    }
+
+    private List<GithubCredential> enabledCredentials() {
+        long now = System.currentTimeMillis();
+        List<GithubCredential> enabled = credentials.stream().filter(credential -> credential.isEnabled(now)).toList();
+        return enabled.isEmpty() ? List.of(anonymous) : enabled;
+    }
+
+    private static long rankedRemaining(GithubCredential credential) {
+        long remaining = credential.getRateLimitState().getRemaining();
+        return remaining < 0 ? Long.MAX_VALUE : remaining;
+    }
+
+    private static long sum(List<GithubCredential> credentials,
+                            ToLongFunction<RateLimitState> value) {
+        long total = 0;
+        for (GithubCredential credential : credentials) {
+            long part = value.applyAsLong(credential.getRateLimitState());
+            if (part < 0) {
+                return -1;
+            }
+            total += part;
+        }
+        return total;
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis + 999));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RateLimitedException("Interrupted while pacing GitHub API calls", 1);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.xqiii.cache.client;
+
+import com.github.xqiii.cache.dto.PeerRepositoryEntry;
+import com.github.xqiii.cache.exception.BizException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client asking the owner node of a key for its cache entry
+ *
+ * Kept apart from {@link GithubHttpClient}: peer calls are neither GitHub
+ * calls nor subject to its rate limit, in-flight limit or circuit breaker.
+ * The connect timeout is short so a dead peer costs little before the caller
+ * falls back to GitHub. The call runs inside the local single-flight leader,
+ * so by default the read timeout covers the owner's own GitHub call but is
+ * capped at half the single-flight timeout, less the connect timeout: a stalled
+ * owner then leaves the leader time to call GitHub itself before the local
+ * followers waiting on it give up.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+@ConditionalOnProperty(name = "github.cache.cluster.enabled", havingValue = "true")
+public class PeerCacheClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerCacheClient.class);
+
+    private final RestTemplate restTemplate;
+
+    private MeterRegistry meterRegistry;
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+
+    public PeerCacheClient(@Value("${github.cache.cluster.connect-timeout-ms:500}") int connectTimeout,
+                           @Value("${github.cache.cluster.read-timeout-ms:0}") int readTimeout,
+                           @Value("${github.api.connect-timeout:5000}") int upstreamConnectTimeout,
+                           @Value("${github.api.read-timeout:10000}") int upstreamReadTimeout,
+                           @Value("${github.cache.single-flight.timeout-ms:15000}") long singleFlightTimeoutMs) {
+        if (readTimeout <= 0) {
+            readTimeout = defaultReadTimeout(connectTimeout, upstreamConnectTimeout, upstreamReadTimeout,
+                singleFlightTimeoutMs);
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Owner's GitHub call, bounded so the local leader can still fall back to GitHub within the single-flight timeout
+     */
+    static int defaultReadTimeout(int connectTimeout, int upstreamConnectTimeout, int upstreamReadTimeout,
+                                  long singleFlightTimeoutMs) {
+        long fallbackBudget = singleFlightTimeoutMs / 2 - connectTimeout;
+        long readTimeout = Math.min((long) upstreamConnectTimeout + upstreamReadTimeout, fallbackBudget);
+        // 0 would mean no timeout at all
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, readTimeout));
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Ask the peer for its entry; the peer resolves it as a local request, going to GitHub if it must
+     *
+     * @return the entry, or empty when the peer could not answer and the caller should go to GitHub itself
+     * @throws BizException REPOSITORY_NOT_FOUND when the peer knows the repository does not exist
+     */
+    public Optional<PeerRepositoryEntry> fetch(String peerUrl, String owner, String repositoryName) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            PeerRepositoryEntry entry = restTemplate.getForObject(
+                peerUrl + "/cluster/repositories/{owner}/{repositoryName}", PeerRepositoryEntry.class,
+                owner, repositoryName);
+            outcome = "found";
+            return Optional.ofNullable(entry);
+        } catch (HttpClientErrorException.NotFound e) {
+            outcome = "not_found";
+            throw new BizException(
+                "REPOSITORY_NOT_FOUND",
+                "Repository not found: " + owner + "/" + repositoryName,
+                HttpStatus.NOT_FOUND.value()
+            );
+        } catch (RestClientException e) {
+            logger.warn("Peer {} could not serve {}/{}, falling back to GitHub: {}", peerUrl, owner, repositoryName,
+                e.getMessage());
+            return Optional.empty();
+        } finally {
+            record(outcome, System.nanoTime() - start);
+        }
+    }
+
+    private void record(String outcome, long nanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        requestTimers.computeIfAbsent(outcome, key -> Timer.builder("github.cluster.peer.requests")
+                .description("Cache fill requests to the owner node by outcome")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
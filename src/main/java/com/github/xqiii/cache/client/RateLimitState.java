@@ -0,0 +1,158 @@
+package com.github.xqiii.cache.client;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * GitHub rate-limit budget as reported by the X-RateLimit-* and Retry-After headers
+ *
+ * The remaining count is decremented locally on every reservation so concurrent
+ * callers do not overshoot between two responses; each response then replaces
+ * the local estimate with GitHub's numbers.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public class RateLimitState {
+
+    /**
+     * Outcome of a reservation: permitted after an optional wait, or rejected until retryAfterMillis
+     */
+    public record Reservation(boolean permitted, long waitMillis, long retryAfterMillis) {
+
+        static Reservation permit(long waitMillis) {
+            return new Reservation(true, waitMillis, 0);
+        }
+
+        static Reservation reject(long retryAfterMillis) {
+            return new Reservation(false, 0, Math.max(retryAfterMillis, 0));
+        }
+    }
+
+    private long limit = -1;
+    private long remaining = -1;
+    private long resetAtMillis;
+    private long blockedUntilMillis;
+    private long nextForegroundAtMillis;
+    private long nextBackgroundAtMillis;
+
+    /**
+     * Reserve one call
+     *
+     * <ul>
+     *   <li>Unknown budget (no response seen yet): permitted</li>
+     *   <li>Budget exhausted or Retry-After pending: rejected until the reset</li>
+     *   <li>Background calls only spend the budget above the reserve, spread evenly until the reset</li>
+     *   <li>Foreground calls are not delayed until the budget dips into the reserve, then they are
+     *   paced to last until the reset, waiting at most maxWaitMillis</li>
+     * </ul>
+     */
+    public synchronized Reservation reserve(UpstreamPriority priority, long nowMillis,
+                                            double reserveRatio, long maxWaitMillis) {
+        if (blockedUntilMillis > nowMillis) {
+            return Reservation.reject(blockedUntilMillis - nowMillis);
+        }
+        if (remaining < 0) {
+            return Reservation.permit(0);
+        }
+        if (resetAtMillis <= nowMillis) {
+            // The window has rolled over since the last response
+            remaining = limit;
+        }
+
+        long untilReset = Math.max(resetAtMillis - nowMillis, 0);
+        if (remaining <= 0) {
+            return Reservation.reject(untilReset);
+        }
+
+        long reserve = (long) Math.ceil(limit * reserveRatio);
+        long waitMillis = 0;
+        if (priority == UpstreamPriority.BACKGROUND) {
+            if (remaining <= reserve) {
+                return Reservation.reject(untilReset);
+            }
+            if (nowMillis < nextBackgroundAtMillis) {
+                return Reservation.reject(nextBackgroundAtMillis - nowMillis);
+            }
+            nextBackgroundAtMillis = nowMillis + untilReset / (remaining - reserve);
+        } else if (remaining <= reserve) {
+            long start = Math.max(nowMillis, nextForegroundAtMillis);
+            waitMillis = start - nowMillis;
+            if (waitMillis > maxWaitMillis) {
+                return Reservation.reject(waitMillis);
+            }
+            nextForegroundAtMillis = start + untilReset / remaining;
+        }
+
+        remaining--;
+        return Reservation.permit(waitMillis);
+    }
+
+    /**
+     * Replace the local estimate with the budget reported by GitHub
+     */
+    public synchronized void update(HttpHeaders headers, long nowMillis) {
+        if (headers == null) {
+            return;
+        }
+        Long headerLimit = parseLong(headers.getFirst("X-RateLimit-Limit"));
+        Long headerRemaining = parseLong(headers.getFirst("X-RateLimit-Remaining"));
+        Long headerReset = parseLong(headers.getFirst("X-RateLimit-Reset"));
+        Long retryAfter = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+
+        if (headerLimit != null) {
+            limit = headerLimit;
+        }
+        if (headerRemaining != null) {
+            remaining = headerRemaining;
+            if (limit < 0) {
+                limit = headerRemaining;
+            }
+        }
+        if (headerReset != null) {
+            resetAtMillis = headerReset * 1000;
+        }
+        if (retryAfter != null) {
+            blockedUntilMillis = Math.max(blockedUntilMillis, nowMillis + retryAfter * 1000);
+        }
+    }
+
+    /**
+     * Whether GitHub has told us to stop: Retry-After pending or no budget left before the reset
+     */
+    public synchronized boolean isExhausted(long nowMillis) {
+        return blockedUntilMillis > nowMillis || (remaining == 0 && resetAtMillis > nowMillis);
+    }
+
+    /**
+     * Milliseconds until calls are expected to succeed again
+     */
+    public synchronized long retryAfterMillis(long nowMillis) {
+        if (blockedUntilMillis > nowMillis) {
+            return blockedUntilMillis - nowMillis;
+        }
+        return Math.max(resetAtMillis - nowMillis, 0);
+    }
+
+    public synchronized long getRemaining() {
+        return remaining;
+    }
+
+    public synchronized long getLimit() {
+        return limit;
+    }
+
+    public synchronized long getResetAtMillis() {
+        return resetAtMillis;
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
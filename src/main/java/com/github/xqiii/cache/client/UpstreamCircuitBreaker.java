@@ -0,0 +1,199 @@
+package com.github.xqiii.cache.client;
+
+import com.github.xqiii.cache.exception.UpstreamUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around GitHub calls
+ *
+ * Outcomes of the last {@code github.api.circuit-breaker.window-size} calls are
+ * kept in a ring buffer. Once at least {@code minimum-calls} are recorded, the
+ * circuit opens when the share of failed calls (I/O errors, timeouts and 5xx
+ * responses) reaches {@code failure-rate-threshold}, or the share of calls slower
+ * than {@code slow-call-duration-ms} reaches {@code slow-call-rate-threshold}.
+ * 4xx responses mean GitHub answered and count as successes. While open, calls
+ * fail immediately with {@link UpstreamUnavailableException}. After
+ * {@code open-duration} the circuit is half-open and lets {@code half-open-calls}
+ * probes through: all of them succeeding quickly closes it, any failed or slow
+ * probe opens it again.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class UpstreamCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamCircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean enabled;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slow;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSucceeded;
+
+    public UpstreamCircuitBreaker(@Value("${github.api.circuit-breaker.enabled:true}") boolean enabled,
+                                  @Value("${github.api.circuit-breaker.window-size:20}") int windowSize,
+                                  @Value("${github.api.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                  @Value("${github.api.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                  @Value("${github.api.circuit-breaker.slow-call-duration-ms:3000}") long slowCallMillis,
+                                  @Value("${github.api.circuit-breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+                                  @Value("${github.api.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+                                  @Value("${github.api.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this.enabled = enabled;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    /**
+     * Run the call if the circuit allows it and record its outcome
+     *
+     * @throws UpstreamUnavailableException if the circuit is open
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        acquirePermission();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onResult(false, System.nanoTime() - start);
+            return result;
+        } catch (RestClientException e) {
+            onResult(!(e instanceof HttpClientErrorException), System.nanoTime() - start);
+            throw e;
+        } catch (RuntimeException e) {
+            // Not a GitHub outcome, e.g. no in-flight slot: give a half-open permit back
+            releasePermission();
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public boolean isOpen() {
+        return enabled && getState() == State.OPEN;
+    }
+
+    private synchronized void acquirePermission() {
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            long remaining = openNanos - (now - openedAtNanos);
+            if (remaining > 0) {
+                throw unavailable(remaining);
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSucceeded = 0;
+            logger.info("GitHub circuit half-open, probing with {} calls", halfOpenCalls);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                throw unavailable(0);
+            }
+            halfOpenPermits--;
+        }
+    }
+
+    private synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private synchronized void onResult(boolean failed, long elapsedNanos) {
+        boolean slowCall = elapsedNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (failed || slowCall) {
+                open("probe " + (failed ? "failed" : "was slow"));
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call admitted before the circuit opened
+            return;
+        }
+
+        if (recorded == failedCalls.length) {
+            failures -= failedCalls[next] ? 1 : 0;
+            slow -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failedCalls[next] = failed;
+        slowCalls[next] = slowCall;
+        failures += failed ? 1 : 0;
+        slow += slowCall ? 1 : 0;
+        next = (next + 1) % failedCalls.length;
+
+        if (recorded >= minimumCalls) {
+            if (failures >= failureRateThreshold * recorded) {
+                open(failures + " of the last " + recorded + " calls failed");
+            } else if (slow >= slowCallRateThreshold * recorded) {
+                open(slow + " of the last " + recorded + " calls were slow");
+            }
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        logger.warn("GitHub circuit opened for {} ms: {}", TimeUnit.NANOSECONDS.toMillis(openNanos), reason);
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slow = 0;
+        logger.info("GitHub circuit closed");
+    }
+
+    private static UpstreamUnavailableException unavailable(long remainingNanos) {
+        return new UpstreamUnavailableException("GitHub API is unavailable, calls are suspended",
+            Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.xqiii.cache.client;
+
+import com.github.xqiii.cache.exception.BizException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of concurrent GitHub calls
+ *
+ * The cap is independent of the request thread pool: when GitHub stalls, at
+ * most {@code github.api.max-in-flight} requests wait on it, and further misses
+ * fail fast with UPSTREAM_BUSY after {@code github.api.in-flight-acquire-timeout-ms}
+ * instead of tying up the threads that serve cache hits.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class UpstreamConcurrencyLimiter {
+
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long acquireTimeoutMillis;
+
+    public UpstreamConcurrencyLimiter(@Value("${github.api.max-in-flight:64}") int maxInFlight,
+                                      @Value("${github.api.in-flight-acquire-timeout-ms:1000}") long acquireTimeoutMillis) {
+        this.permits = new Semaphore(maxInFlight, true);
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new BizException(
+                    "UPSTREAM_BUSY",
+                    "Too many concurrent GitHub API calls, please retry later",
+                    HttpStatus.SERVICE_UNAVAILABLE.value()
+                );
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BizException(
+                "UPSTREAM_BUSY",
+                "Interrupted while waiting for a GitHub API slot",
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                e
+            );
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.xqiii.cache.client;
+
+import com.github.xqiii.cache.exception.BizException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hedged GitHub calls
+ *
+ * When enabled ({@code github.api.hedging.enabled=true}), a call that has not
+ * answered within the {@code github.api.hedging.percentile} of recent upstream
+ * latency (see {@link UpstreamLatencyTracker}, never less than
+ * {@code min-delay-ms}) is sent a second time. The first successful answer
+ * wins and the other attempt is cancelled. Each call earns
+ * {@code max-extra-ratio} of a hedge token and each hedge spends a whole one,
+ * so hedges stay below that share of upstream requests however slow GitHub gets.
+ * A hedge is a real request against the rate limit: the caller passes a permit
+ * that reserves its budget, and the hedge is skipped when none is left.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class UpstreamHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamHedger.class);
+
+    /**
+     * Most hedge tokens that can be saved up for a burst of slow calls
+     */
+    private static final double MAX_TOKENS = 10;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMillis;
+    private final double maxExtraRatio;
+    private final UpstreamLatencyTracker latencyTracker;
+    private final ExecutorService executor;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private double tokens;
+
+    public UpstreamHedger(UpstreamLatencyTracker latencyTracker,
+                          @Value("${github.api.hedging.enabled:false}") boolean enabled,
+                          @Value("${github.api.hedging.percentile:0.95}") double percentile,
+                          @Value("${github.api.hedging.min-delay-ms:50}") long minDelayMillis,
+                          @Value("${github.api.hedging.max-extra-ratio:0.05}") double maxExtraRatio) {
+        this.latencyTracker = latencyTracker;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.maxExtraRatio = maxExtraRatio;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-hedge-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            logger.info("Hedged GitHub calls enabled after p{} latency, at most {}% extra requests",
+                Math.round(percentile * 100), maxExtraRatio * 100);
+        }
+    }
+
+    /**
+     * Run the call, hedging it if it is slower than usual
+     *
+     * Latencies of completed attempts are recorded even when hedging is off, so
+     * the percentile is known as soon as it is turned on.
+     */
+    public <T> T execute(Supplier<T> call) {
+        return execute(call, () -> true);
+    }
+
+    /**
+     * Run the call, hedging it only if hedgePermit grants the hedge's upstream budget
+     *
+     * @param hedgePermit asked once, on the caller thread, right before a hedge would be sent
+     */
+    public <T> T execute(Supplier<T> call, BooleanSupplier hedgePermit) {
+        if (!enabled) {
+            return timed(call, true);
+        }
+        long hedgeDelay = latencyTracker.percentile(percentile);
+        deposit();
+        if (hedgeDelay < 0) {
+            return timed(call, true);
+        }
+
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        Future<T> primary = completion.submit(() -> timed(call, true));
+        Future<T> hedge = null;
+        try {
+            Future<T> first = completion.poll(Math.max(hedgeDelay, minDelayMillis), TimeUnit.MILLISECONDS);
+            if (first != null) {
+                return result(first);
+            }
+            if (!withdraw()) {
+                return result(primary);
+            }
+            if (!hedgePermit.getAsBoolean()) {
+                refund();
+                logger.debug("No upstream budget for a hedge after {} ms, waiting for the first attempt", hedgeDelay);
+                return result(primary);
+            }
+            hedges.incrementAndGet();
+            logger.debug("No answer from GitHub after {} ms, sending hedge request", hedgeDelay);
+            hedge = completion.submit(() -> timed(call, false));
+
+            Future<T> winner = completion.take();
+            try {
+                return result(winner);
+            } catch (RuntimeException e) {
+                // The first answer failed: the other attempt may still succeed
+                return result(completion.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BizException(
+                "UPSTREAM_TIMEOUT",
+                "Interrupted while waiting for GitHub API",
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                e
+            );
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run one attempt and record its latency
+     *
+     * A primary that lost to its hedge is cancelled, but it was slower than the hedge
+     * delay: its elapsed time up to the cancellation is kept as a lower bound, otherwise
+     * the slowest calls would never reach the percentile and it would drift low. A
+     * cancelled hedge only ran since the hedge delay, so its time is dropped.
+     */
+    private <T> T timed(Supplier<T> call, boolean recordWhenCancelled) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            if (recordWhenCancelled || !Thread.currentThread().isInterrupted()) {
+                latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+    }
+
+    private synchronized void deposit() {
+        calls.incrementAndGet();
+        tokens = Math.min(MAX_TOKENS, tokens + maxExtraRatio);
+    }
+
+    private synchronized boolean withdraw() {
+        // Tolerate rounding in the sum of fractional deposits
+        if (tokens < 1 - 1e-9) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private synchronized void refund() {
+        tokens = Math.min(MAX_TOKENS, tokens + 1);
+    }
+
+    private static <T> T result(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BizException(
+                "GITHUB_API_ERROR",
+                "Error calling GitHub API: " + e.getCause().getMessage(),
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e.getCause()
+            );
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.xqiii.cache.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Live latency distribution of recent GitHub calls
+ *
+ * The last {@code github.api.latency.window-size} latencies are kept in a ring
+ * buffer. Percentiles are computed from a sorted copy, refreshed at most every
+ * {@value #RECOMPUTE_EVERY} samples, so reading one on every miss stays cheap.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class UpstreamLatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long[] samples;
+    private final int minSamples;
+    private int recorded;
+    private int next;
+    private int sinceSorted;
+    private long[] sorted = new long[0];
+
+    public UpstreamLatencyTracker(@Value("${github.api.latency.window-size:1000}") int windowSize,
+                                  @Value("${github.api.latency.min-samples:20}") int minSamples) {
+        this.samples = new long[windowSize];
+        this.minSamples = Math.min(minSamples, windowSize);
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (recorded < samples.length) {
+            recorded++;
+        }
+        sinceSorted++;
+    }
+
+    /**
+     * Latency in milliseconds below which the given share of recent calls completed
+     *
+     * @param percentile between 0 and 1, e.g. 0.95
+     * @return the latency, or -1 until {@code github.api.latency.min-samples} calls are recorded
+     */
+    public synchronized long percentile(double percentile) {
+        if (recorded < minSamples) {
+            return -1;
+        }
+        if (sorted.length != recorded || sinceSorted >= RECOMPUTE_EVERY) {
+            sorted = Arrays.copyOf(samples, recorded);
+            Arrays.sort(sorted);
+            sinceSorted = 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public synchronized int getSampleCount() {
+        return recorded;
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.xqiii.cache.client;
+
+/**
+ * Priority of a GitHub call, used by the rate limiter to favour user-facing requests
+ *
+ * Calls are FOREGROUND unless made from within {@link #runInBackground}, which
+ * the background refresh executor wraps around its tasks.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public enum UpstreamPriority {
+
+    FOREGROUND,
+    BACKGROUND;
+
+    private static final ThreadLocal<UpstreamPriority> CURRENT = ThreadLocal.withInitial(() -> FOREGROUND);
+
+    public static UpstreamPriority current() {
+        return CURRENT.get();
+    }
+
+    public static void runInBackground(Runnable task) {
+        UpstreamPriority previous = CURRENT.get();
+        CURRENT.set(BACKGROUND);
+        try {
+            task.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.xqiii.cache.config;
+
+import com.github.xqiii.cache.client.GithubHttpClient;
+import com.github.xqiii.cache.client.GithubRateLimiter;
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker;
+import com.github.xqiii.cache.client.UpstreamConcurrencyLimiter;
+import com.github.xqiii.cache.client.UpstreamHedger;
+import com.github.xqiii.cache.service.NegativeCache;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.service.RepositoryRefreshExecutor;
+import com.github.xqiii.cache.service.RepositoryWriteBehind;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges over the cache and upstream components
+ *
+ * Gauges sample the components' own counters when scraped, so nothing here
+ * adds work to the request path. Request-path timers and lookup counters live
+ * in {@link com.github.xqiii.cache.service.CacheMetrics} and
+ * {@link GithubHttpClient}.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder upstreamMetrics(UpstreamConcurrencyLimiter concurrencyLimiter,
+                                       GithubRateLimiter rateLimiter,
+                                       UpstreamCircuitBreaker circuitBreaker,
+                                       UpstreamHedger hedger,
+                                       GithubHttpClient githubHttpClient) {
+        return registry -> {
+            Gauge.builder("github.upstream.inflight", concurrencyLimiter, UpstreamConcurrencyLimiter::getInFlight)
+                .description("GitHub calls currently holding an in-flight permit")
+                .register(registry);
+            Gauge.builder("github.upstream.inflight.max", concurrencyLimiter, UpstreamConcurrencyLimiter::getMaxInFlight)
+                .description("In-flight permit limit")
+                .register(registry);
+            Gauge.builder("github.ratelimit.remaining", rateLimiter, GithubRateLimiter::getRemaining)
+                .description("Remaining GitHub API budget over the tokens in rotation, -1 until reported")
+                .register(registry);
+            Gauge.builder("github.ratelimit.limit", rateLimiter, GithubRateLimiter::getLimit)
+                .description("GitHub API budget over the tokens in rotation, -1 until reported")
+                .register(registry);
+            Gauge.builder("github.ratelimit.tokens", rateLimiter, GithubRateLimiter::getEnabledTokenCount)
+                .description("Tokens in rotation")
+                .register(registry);
+            Gauge.builder("github.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+            FunctionCounter.builder("github.upstream.hedging.calls", hedger, UpstreamHedger::getCallCount)
+                .description("GitHub calls eligible for hedging")
+                .register(registry);
+            FunctionCounter.builder("github.upstream.hedging.hedges", hedger, UpstreamHedger::getHedgeCount)
+                .description("Hedged requests sent")
+                .register(registry);
+            Gauge.builder("github.http.inflight", githubHttpClient, GithubHttpClient::getInFlightRequests)
+                .description("HTTP requests to GitHub currently on the wire")
+                .register(registry);
+            if (githubHttpClient.getLeasedConnections() >= 0) {
+                Gauge.builder("github.http.connections.leased", githubHttpClient, GithubHttpClient::getLeasedConnections)
+                    .register(registry);
+                Gauge.builder("github.http.connections.available", githubHttpClient,
+                        GithubHttpClient::getAvailableConnections)
+                    .register(registry);
+                Gauge.builder("github.http.connections.pending", githubHttpClient,
+                        GithubHttpClient::getPendingConnections)
+                    .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheTierMetrics(RepositoryL1Cache l1Cache,
+                                        NegativeCache negativeCache,
+                                        RepositoryRefreshExecutor refreshExecutor,
+                                        ObjectProvider<RepositoryWriteBehind> writeBehind) {
+        return registry -> {
+            Gauge.builder("github.cache.l1.size", l1Cache, RepositoryL1Cache::estimatedSize)
+                .description("Entries in the in-memory tier")
+                .register(registry);
+            Gauge.builder("github.cache.negative.size", negativeCache, NegativeCache::estimatedSize)
+                .description("Repositories remembered as missing")
+                .register(registry);
+            Gauge.builder("github.cache.refresh.pending", refreshExecutor, RepositoryRefreshExecutor::pendingCount)
+                .description("Background refreshes queued or running")
+                .register(registry);
+            writeBehind.ifAvailable(queue -> Gauge.builder("github.cache.write-behind.pending", queue,
+                    RepositoryWriteBehind::pendingCount)
+                .description("Rows waiting to be written behind")
+                .register(registry));
+        };
+    }
+}
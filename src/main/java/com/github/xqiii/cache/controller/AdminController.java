@@ -0,0 +1,54 @@
+package com.github.xqiii.cache.controller;
+
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.HotRepository;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.service.PopularityTracker;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Cache administration endpoints
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@RestController
+@RequestMapping("/admin/cache")
+public class AdminController {
+
+    private static final int MAX_HOT_LIMIT = 1000;
+
+    private final PopularityTracker popularityTracker;
+    private final RepositoryL1Cache l1Cache;
+
+    public AdminController(PopularityTracker popularityTracker, RepositoryL1Cache l1Cache) {
+        this.popularityTracker = popularityTracker;
+        this.l1Cache = l1Cache;
+    }
+
+    /**
+     * The most requested repositories, most popular first
+     */
+    @GetMapping("/hot")
+    public ResponseEntity<List<HotRepository>> getHotRepositories(@RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_HOT_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_HOT_LIMIT);
+        }
+        List<HotRepository> hot = popularityTracker.top(limit).stream()
+            .map(hotKey -> {
+                RepositoryKey key = RepositoryKey.parse(hotKey.key());
+                CachedRepository cached = l1Cache.get(key);
+                return new HotRepository(key.owner(), key.repositoryName(), hotKey.count(), cached != null,
+                    cached != null ? cached.getFetchedAt() : null);
+            })
+            .toList();
+        return ResponseEntity.ok(hot);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.xqiii.cache.controller;
+
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.PeerRepositoryEntry;
+import com.github.xqiii.cache.service.RepositoryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Node-to-node endpoints of cluster mode
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@RestController
+@RequestMapping("/cluster")
+@ConditionalOnProperty(name = "github.cache.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final RepositoryService repositoryService;
+
+    public ClusterController(RepositoryService repositoryService) {
+        this.repositoryService = repositoryService;
+    }
+
+    /**
+     * Entry for a peer that does not own the key, resolved here without asking any other peer
+     */
+    @GetMapping("/repositories/{owner}/{repositoryName}")
+    public ResponseEntity<PeerRepositoryEntry> getRepository(@PathVariable String owner,
+                                                             @PathVariable String repositoryName) {
+        CachedRepository entry = repositoryService.getLocalRepositoryEntry(owner, repositoryName);
+        return ResponseEntity.ok(PeerRepositoryEntry.from(entry));
+    }
+}
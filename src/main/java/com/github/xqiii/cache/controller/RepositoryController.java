@@ -1,12 +1,24 @@
 package com.github.xqiii.cache.controller;
 
-import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.dto.BatchRepositoryRequest;
+import com.github.xqiii.cache.dto.BatchRepositoryResponse;
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.service.CacheFreshnessPolicy;
+import com.github.xqiii.cache.service.CacheFreshnessPolicy.Freshness;
+import com.github.xqiii.cache.service.RepositoryBatchService;
+import com.github.xqiii.cache.service.RepositoryResponseEncoder;
 import com.github.xqiii.cache.service.RepositoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,22 +33,83 @@ import org.springframework.web.bind.annotation.RestController;
 public class RepositoryController {
 
     private static final Logger logger = LoggerFactory.getLogger(RepositoryController.class);
+
+    /**
+     * Sent with entries served past expiry because GitHub could not be reached
+     */
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
     
     private final RepositoryService repositoryService;
+    private final RepositoryBatchService repositoryBatchService;
+    private final CacheFreshnessPolicy freshnessPolicy;
+    private final RepositoryResponseEncoder responseEncoder;
 
-    public RepositoryController(RepositoryService repositoryService) {
+    public RepositoryController(RepositoryService repositoryService,
+                                RepositoryBatchService repositoryBatchService,
+                                CacheFreshnessPolicy freshnessPolicy,
+                                RepositoryResponseEncoder responseEncoder) {
         this.repositoryService = repositoryService;
+        this.repositoryBatchService = repositoryBatchService;
+        this.freshnessPolicy = freshnessPolicy;
+        this.responseEncoder = responseEncoder;
     }
 
+    /**
+     * Writes the entry's pre-serialized JSON (gzip when enabled and accepted) straight to the response
+     *
+     * A matching If-None-Match is answered with 304 by Spring from the ETag set here, keeping
+     * the other headers; checking it in the controller as well would send the ETag twice.
+     */
     @GetMapping("/{owner}/{repositoryName}")
-    public ResponseEntity<RepositoryResponse> getRepository(
+    public ResponseEntity<byte[]> getRepository(
             @PathVariable String owner,
-            @PathVariable String repositoryName) {
+            @PathVariable String repositoryName,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         
-        logger.info("Received request for repository: {}/{}", owner, repositoryName);
+        logger.debug("Received request for repository: {}/{}", owner, repositoryName);
         
-        RepositoryResponse response = repositoryService.getRepositoryDetails(owner, repositoryName);
+        CachedRepository entry = repositoryService.getRepositoryEntry(owner, repositoryName);
+        CacheControl cacheControl = CacheControl
+            .maxAge(freshnessPolicy.remainingFreshTtl(entry.getFetchedAt()))
+            .cachePublic();
+        HttpHeaders headers = new HttpHeaders();
+        if (freshnessPolicy.evaluate(entry.getFetchedAt()) == Freshness.EXPIRED) {
+            headers.set(HttpHeaders.WARNING, STALE_WARNING);
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .eTag(entry.getEtag())
+            .cacheControl(cacheControl)
+            .headers(headers)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (!responseEncoder.isGzipEnabled()) {
+            return builder.body(responseEncoder.json(entry));
+        }
+        builder.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(responseEncoder.gzipJson(entry));
+        }
+        return builder.body(responseEncoder.json(entry));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchRepositoryResponse> getRepositories(@RequestBody BatchRepositoryRequest request) {
+        logger.debug("Received batch request for {} repositories",
+            request.getRepositories() != null ? request.getRepositories().size() : 0);
+
+        BatchRepositoryResponse response = repositoryBatchService.getRepositoryDetailsBatch(request.getRepositories());
         return ResponseEntity.ok(response);
     }
-}
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.xqiii.cache.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-repository result of a batch lookup
+ * 
+ * Successful items carry {@code repository}; failed items carry
+ * {@code errorCode} and {@code message} instead.
+ * 
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRepositoryItem {
+
+    private String owner;
+    private String repositoryName;
+    private int status;
+    private RepositoryResponse repository;
+    private String errorCode;
+    private String message;
+
+    public static BatchRepositoryItem success(String owner, String repositoryName, RepositoryResponse repository) {
+        return new BatchRepositoryItem(owner, repositoryName, 200, repository, null, null);
+    }
+
+    public static BatchRepositoryItem failure(String owner, String repositoryName, int status,
+                                              String errorCode, String message) {
+        return new BatchRepositoryItem(owner, repositoryName, status, null, errorCode, message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.xqiii.cache.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Batch repository lookup request DTO
+ * 
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRepositoryRequest {
+
+    private List<RepositoryIdentifier> repositories;
+}
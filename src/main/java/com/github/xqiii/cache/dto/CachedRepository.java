@@ -0,0 +1,75 @@
+package com.github.xqiii.cache.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Cached repository entry held by the in-memory tier
+ * 
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Getter
+public class CachedRepository {
+
+    private final RepositoryResponse response;
+
+    /**
+     * When the details were last fetched from (or confirmed by) GitHub
+     */
+    private final Instant fetchedAt;
+
+    /**
+     * Strong ETag of the response content, unchanged by revalidations that confirm the same content;
+     * computed on first use
+     */
+    private volatile String etag;
+
+    /**
+     * UTF-8 JSON of the response, built on first use and shared by every hit on this entry
+     */
+    @Setter
+    private volatile byte[] json;
+
+    /**
+     * Gzip of {@link #json}, built on the first request that accepts it
+     */
+    @Setter
+    private volatile byte[] gzipJson;
+
+    public CachedRepository(RepositoryResponse response, Instant fetchedAt) {
+        this.response = response;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public String getEtag() {
+        String current = etag;
+        if (current == null) {
+            current = contentEtag(response);
+            etag = current;
+        }
+        return current;
+    }
+
+    private static String contentEtag(RepositoryResponse response) {
+        String content = String.join("\n",
+            Objects.toString(response.getFullName()),
+            Objects.toString(response.getDescription()),
+            Objects.toString(response.getCloneUrl()),
+            Objects.toString(response.getStars()),
+            Objects.toString(response.getCreatedAt()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
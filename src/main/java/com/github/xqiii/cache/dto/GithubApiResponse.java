@@ -1,5 +1,6 @@
 package com.github.xqiii.cache.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
@@ -31,5 +32,17 @@ public class GithubApiResponse {
     
     @JsonProperty("created_at")
     private String createdAt;
+
+    /**
+     * ETag response header, not part of the JSON body
+     */
+    @JsonIgnore
+    private String etag;
+
+    /**
+     * Last-Modified response header, not part of the JSON body
+     */
+    @JsonIgnore
+    private String lastModified;
 }
 
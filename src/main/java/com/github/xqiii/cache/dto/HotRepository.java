@@ -0,0 +1,33 @@
+package com.github.xqiii.cache.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Frequently requested repository as listed by {@code GET /admin/cache/hot}
+ *
+ * {@code estimatedRequests} is the decayed popularity estimate, an upper bound
+ * on recent requests. {@code fetchedAt} is only present while the repository
+ * is held in the L1 tier.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotRepository {
+
+    private String owner;
+    private String repositoryName;
+    private long estimatedRequests;
+    private boolean cached;
+    private Instant fetchedAt;
+}
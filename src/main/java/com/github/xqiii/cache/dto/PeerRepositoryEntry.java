@@ -0,0 +1,46 @@
+package com.github.xqiii.cache.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Cache entry exchanged between cluster nodes by {@code GET /cluster/repositories/{owner}/{repository-name}}
+ *
+ * Carries the owner node's {@code fetchedAt}, so the requesting node ages the
+ * entry from when GitHub was actually asked rather than from when it was copied.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeerRepositoryEntry {
+
+    private String fullName;
+    private String description;
+    private String cloneUrl;
+    private Integer stars;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    private Instant fetchedAt;
+
+    public static PeerRepositoryEntry from(CachedRepository entry) {
+        RepositoryResponse response = entry.getResponse();
+        return new PeerRepositoryEntry(response.getFullName(), response.getDescription(), response.getCloneUrl(),
+            response.getStars(), response.getCreatedAt(), entry.getFetchedAt());
+    }
+
+    public RepositoryResponse toResponse() {
+        return new RepositoryResponse(fullName, description, cloneUrl, stars, createdAt);
+    }
+}
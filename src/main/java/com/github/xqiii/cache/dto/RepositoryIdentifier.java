@@ -0,0 +1,22 @@
+package com.github.xqiii.cache.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Owner/name pair identifying a GitHub repository
+ * 
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepositoryIdentifier {
+
+    private String owner;
+    private String repositoryName;
+}
@@ -0,0 +1,87 @@
+package com.github.xqiii.cache.dto;
+
+import com.github.benmanes.caffeine.cache.Interner;
+
+import java.util.Locale;
+
+/**
+ * Canonical identity of a GitHub repository
+ *
+ * GitHub owner and repository names are case-insensitive, so the key is the
+ * lower-cased {@code owner/name}; {@code Octocat/Hello-World} and
+ * {@code octocat/hello-world} are the same key everywhere: the in-memory tier,
+ * the indexed {@code cacheKey} column, single-flight and upstream batching.
+ *
+ * Keys are interned, so each repository has one shared instance however many
+ * structures hold it, and the hash is computed once. GitHub names are ASCII,
+ * so the value is stored by the JVM as a one-byte-per-character string.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public final class RepositoryKey {
+
+    private static final Interner<RepositoryKey> INTERNER = Interner.newWeakInterner();
+
+    private final String value;
+    private final int separator;
+    private final int hash;
+
+    private RepositoryKey(String value, int separator) {
+        this.value = value;
+        this.separator = separator;
+        this.hash = value.hashCode();
+    }
+
+    public static RepositoryKey of(String owner, String repositoryName) {
+        if (owner == null || owner.isEmpty() || repositoryName == null || repositoryName.isEmpty()) {
+            throw new IllegalArgumentException("owner and repositoryName are required");
+        }
+        String value = (owner + "/" + repositoryName).toLowerCase(Locale.ROOT);
+        return INTERNER.intern(new RepositoryKey(value, value.indexOf('/')));
+    }
+
+    /**
+     * Parse an {@code owner/name} string, such as a GitHub {@code full_name}
+     */
+    public static RepositoryKey parse(String key) {
+        int separator = key == null ? -1 : key.indexOf('/');
+        if (separator <= 0 || separator == key.length() - 1) {
+            throw new IllegalArgumentException("Expected owner/name, got: " + key);
+        }
+        return of(key.substring(0, separator), key.substring(separator + 1));
+    }
+
+    public String owner() {
+        return value.substring(0, separator);
+    }
+
+    public String repositoryName() {
+        return value.substring(separator + 1);
+    }
+
+    /**
+     * Canonical {@code owner/name}, as stored in the {@code cacheKey} column
+     */
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof RepositoryKey key && hash == key.hash && value.equals(key.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -3,29 +3,27 @@ package com.github.xqiii.cache.dto;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 
 import java.time.LocalDateTime;
 
 /**
  * Repository response DTO
  * 
+ * Immutable so that a single instance can be shared by the in-memory cache
+ * and every request that hits it.
+ * 
  * @author xiuqiii
  * @date 2025-11-29
  */
 @Getter
-@Setter
-@NoArgsConstructor
 @AllArgsConstructor
 public class RepositoryResponse {
     
-    private String fullName;
-    private String description;
-    private String cloneUrl;
-    private Integer stars;
+    private final String fullName;
+    private final String description;
+    private final String cloneUrl;
+    private final Integer stars;
     
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime createdAt;
+    private final LocalDateTime createdAt;
 }
-
@@ -0,0 +1,59 @@
+package com.github.xqiii.cache.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a repositories row
+ * 
+ * Built directly by the query (no managed entity, no persistence context) and
+ * carrying the validators needed to revalidate the row with GitHub.
+ * 
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Getter
+@AllArgsConstructor
+public class RepositorySnapshot {
+
+    private final String owner;
+    private final String repositoryName;
+    private final String fullName;
+    private final String description;
+    private final String cloneUrl;
+    private final Integer stars;
+    private final LocalDateTime createdAt;
+    private final Instant fetchedAt;
+    private final String etag;
+    private final String lastModified;
+
+    public RepositoryKey getKey() {
+        return RepositoryKey.of(owner, repositoryName);
+    }
+
+    /**
+     * Whether GitHub gave us validators usable for a conditional request
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * Same row, confirmed by GitHub at the given time
+     */
+    public RepositorySnapshot withFetchedAt(Instant confirmedAt) {
+        return new RepositorySnapshot(owner, repositoryName, fullName, description, cloneUrl, stars, createdAt,
+            confirmedAt, etag, lastModified);
+    }
+
+    public RepositoryResponse toResponse() {
+        return new RepositoryResponse(fullName, description, cloneUrl, stars, createdAt);
+    }
+
+    public CachedRepository toCachedRepository() {
+        return new CachedRepository(toResponse(), fetchedAt);
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.xqiii.cache.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Former name of a renamed repository
+ *
+ * Recorded when GitHub redirects a request for {@code aliasKey} to a repository
+ * whose canonical key is {@code cacheKey}, so later lookups of the old name find
+ * the row without another upstream call.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Entity
+@Table(name = "repository_aliases", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"aliasKey"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RepositoryAliasEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Key the repository was requested under
+     */
+    @Column(nullable = false)
+    private String aliasKey;
+
+    /**
+     * Canonical key of the repository row
+     */
+    @Column(nullable = false)
+    private String cacheKey;
+
+    @Column(nullable = false)
+    private Instant recordedAt;
+
+    public RepositoryAliasEntity(String aliasKey, String cacheKey) {
+        this.aliasKey = aliasKey;
+        this.cacheKey = cacheKey;
+        this.recordedAt = Instant.now();
+    }
+}
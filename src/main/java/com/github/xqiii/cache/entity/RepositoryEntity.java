@@ -1,12 +1,19 @@
 package com.github.xqiii.cache.entity;
 
+import com.github.xqiii.cache.dto.CachedRepository;
 import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.PeerRepositoryEntry;
+import com.github.xqiii.cache.dto.RepositoryKey;
 import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.dto.RepositorySnapshot;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -14,6 +21,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 
@@ -25,7 +33,9 @@ import java.time.ZonedDateTime;
  */
 @Entity
 @Table(name = "repositories", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"owner", "repositoryName"})
+    @UniqueConstraint(columnNames = {"cacheKey"})
+}, indexes = {
+    @Index(name = "idx_repositories_fetched_at", columnList = "fetchedAt")
 })
 @Getter
 @Setter
@@ -43,6 +53,12 @@ public class RepositoryEntity {
     @Column(nullable = false)
     private String repositoryName;
 
+    /**
+     * Canonical {@link RepositoryKey} of owner and repository name, the single indexed lookup column
+     */
+    @Column(nullable = false)
+    private String cacheKey;
+
     @Column(nullable = false)
     private String fullName;
 
@@ -58,16 +74,34 @@ public class RepositoryEntity {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * When the details were last fetched from (or confirmed by) GitHub
+     */
+    @Column(nullable = false)
+    private Instant fetchedAt;
+
+    /**
+     * ETag returned by GitHub, sent back as If-None-Match on revalidation
+     */
+    private String etag;
+
+    /**
+     * Last-Modified returned by GitHub, sent back as If-Modified-Since on revalidation
+     */
+    private String lastModified;
+
     public RepositoryEntity(String owner, String repositoryName, String fullName, 
                            String description, String cloneUrl, Integer stars, 
                            LocalDateTime createdAt) {
         this.owner = owner;
         this.repositoryName = repositoryName;
+        this.cacheKey = RepositoryKey.of(owner, repositoryName).value();
         this.fullName = fullName;
         this.description = description;
         this.cloneUrl = cloneUrl;
         this.stars = stars;
         this.createdAt = createdAt;
+        this.fetchedAt = Instant.now();
     }
 
     /**
@@ -77,25 +111,88 @@ public class RepositoryEntity {
         RepositoryEntity entity = new RepositoryEntity();
         entity.setOwner(owner);
         entity.setRepositoryName(repositoryName);
-        entity.setFullName(githubResponse.getFullName());
-        entity.setDescription(githubResponse.getDescription());
-        entity.setCloneUrl(githubResponse.getCloneUrl());
-        entity.setStars(stargazersCountToStars(githubResponse.getStargazersCount()));
-        entity.setCreatedAt(stringToLocalDateTime(githubResponse.getCreatedAt()));
+        entity.updateCacheKey();
+        entity.updateFromGithubApiResponse(githubResponse);
+        return entity;
+    }
+
+    /**
+     * Create RepositoryEntity from the entry a cluster peer answered with
+     */
+    public static RepositoryEntity fromPeerEntry(String owner, String repositoryName, PeerRepositoryEntry peerEntry) {
+        RepositoryEntity entity = new RepositoryEntity();
+        entity.setOwner(owner);
+        entity.setRepositoryName(repositoryName);
+        entity.updateCacheKey();
+        entity.updateFromPeerEntry(peerEntry);
         return entity;
     }
 
+    /**
+     * Keep the key column in step with owner and repository name
+     */
+    @PrePersist
+    @PreUpdate
+    void updateCacheKey() {
+        this.cacheKey = RepositoryKey.of(owner, repositoryName).value();
+    }
+
+    /**
+     * Overwrite the cached details with a fresh GithubApiResponse
+     */
+    public void updateFromGithubApiResponse(GithubApiResponse githubResponse) {
+        this.fullName = githubResponse.getFullName();
+        this.description = githubResponse.getDescription();
+        this.cloneUrl = githubResponse.getCloneUrl();
+        this.stars = stargazersCountToStars(githubResponse.getStargazersCount());
+        this.createdAt = stringToLocalDateTime(githubResponse.getCreatedAt());
+        this.etag = githubResponse.getEtag();
+        this.lastModified = githubResponse.getLastModified();
+        this.fetchedAt = Instant.now();
+    }
+
+    /**
+     * Overwrite the cached details with a peer's entry, keeping its fetch time
+     *
+     * Peers do not share GitHub validators, so the next refresh of this row is a full fetch.
+     */
+    public void updateFromPeerEntry(PeerRepositoryEntry peerEntry) {
+        this.fullName = peerEntry.getFullName();
+        this.description = peerEntry.getDescription();
+        this.cloneUrl = peerEntry.getCloneUrl();
+        this.stars = stargazersCountToStars(peerEntry.getStars());
+        this.createdAt = peerEntry.getCreatedAt();
+        this.etag = null;
+        this.lastModified = null;
+        this.fetchedAt = peerEntry.getFetchedAt();
+    }
+
     /**
      * Convert RepositoryEntity to RepositoryResponse
      */
     public RepositoryResponse toResponse() {
-        RepositoryResponse response = new RepositoryResponse();
-        response.setFullName(this.fullName);
-        response.setDescription(this.description);
-        response.setCloneUrl(this.cloneUrl);
-        response.setStars(this.stars);
-        response.setCreatedAt(this.createdAt);
-        return response;
+        return new RepositoryResponse(
+            this.fullName,
+            this.description,
+            this.cloneUrl,
+            this.stars,
+            this.createdAt
+        );
+    }
+
+    /**
+     * Detached snapshot of the row's current state
+     */
+    public RepositorySnapshot toSnapshot() {
+        return new RepositorySnapshot(this.owner, this.repositoryName, this.fullName, this.description,
+            this.cloneUrl, this.stars, this.createdAt, this.fetchedAt, this.etag, this.lastModified);
+    }
+
+    /**
+     * Convert RepositoryEntity to the in-memory cache entry
+     */
+    public CachedRepository toCachedRepository() {
+        return new CachedRepository(toResponse(), this.fetchedAt);
     }
 
     /**
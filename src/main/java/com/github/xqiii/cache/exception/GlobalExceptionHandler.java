@@ -3,6 +3,7 @@ package com.github.xqiii.cache.exception;
 import com.github.xqiii.cache.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,7 +25,45 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(BizException.class)
     public ResponseEntity<ErrorResponse> handleBizException(BizException ex, HttpServletRequest request) {
-        logger.error("Business exception: {} - {}", ex.getErrorCode(), ex.getMessage());
+        if (ex.getHttpStatus() >= 500) {
+            logger.error("Business exception: {} - {}", ex.getErrorCode(), ex.getMessage());
+        } else {
+            // Client errors such as unknown repositories are routine, keep them out of the default log
+            logger.debug("Business exception: {} - {}", ex.getErrorCode(), ex.getMessage());
+        }
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            ex.getErrorCode(),
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity
+            .status(ex.getHttpStatus())
+            .body(errorResponse);
+    }
+
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitedException(
+            RateLimitedException ex, HttpServletRequest request) {
+        logger.warn("Rate limited: {} - {}", ex.getErrorCode(), ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            ex.getErrorCode(),
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return ResponseEntity
+            .status(ex.getHttpStatus())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailableException(
+            UpstreamUnavailableException ex, HttpServletRequest request) {
+        logger.warn("Upstream unavailable: {} - {}", ex.getErrorCode(), ex.getMessage());
         
         ErrorResponse errorResponse = new ErrorResponse(
             ex.getErrorCode(),
@@ -34,6 +73,7 @@ public class GlobalExceptionHandler {
         
         return ResponseEntity
             .status(ex.getHttpStatus())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
             .body(errorResponse);
     }
 
@@ -0,0 +1,23 @@
+package com.github.xqiii.cache.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * GitHub API quota exhausted, carries the time until it is expected to reset
+ * 
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public class RateLimitedException extends BizException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super("GITHUB_RATE_LIMITED", message, HttpStatus.SERVICE_UNAVAILABLE.value());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.xqiii.cache.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * GitHub API calls are suspended by the circuit breaker, carries the time until the next probe
+ * 
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public class UpstreamUnavailableException extends BizException {
+
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String message, long retryAfterSeconds) {
+        super("UPSTREAM_UNAVAILABLE", message, HttpStatus.SERVICE_UNAVAILABLE.value());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
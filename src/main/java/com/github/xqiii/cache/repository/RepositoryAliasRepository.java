@@ -0,0 +1,27 @@
+package com.github.xqiii.cache.repository;
+
+import com.github.xqiii.cache.entity.RepositoryAliasEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Aliases of renamed repositories
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Repository
+public interface RepositoryAliasRepository extends JpaRepository<RepositoryAliasEntity, Long> {
+
+    Optional<RepositoryAliasEntity> findByAliasKey(String aliasKey);
+
+    /**
+     * Canonical key a former name points to
+     */
+    @Query("select a.cacheKey from RepositoryAliasEntity a where a.aliasKey = :aliasKey")
+    Optional<String> findTargetKey(@Param("aliasKey") String aliasKey);
+}
@@ -1,9 +1,18 @@
 package com.github.xqiii.cache.repository;
 
+import com.github.xqiii.cache.dto.RepositorySnapshot;
 import com.github.xqiii.cache.entity.RepositoryEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,7 +23,45 @@ import java.util.Optional;
  */
 @Repository
 public interface RepositoryRepository extends JpaRepository<RepositoryEntity, Long> {
+
+    String SNAPSHOT_SELECT = "select new com.github.xqiii.cache.dto.RepositorySnapshot("
+        + "r.owner, r.repositoryName, r.fullName, r.description, r.cloneUrl, r.stars, r.createdAt, "
+        + "r.fetchedAt, r.etag, r.lastModified) from RepositoryEntity r ";
     
-    Optional<RepositoryEntity> findByOwnerAndRepositoryName(String owner, String repositoryName);
+    /**
+     * Look up a row by its canonical {@link com.github.xqiii.cache.dto.RepositoryKey} value
+     */
+    Optional<RepositoryEntity> findByCacheKey(String cacheKey);
+
+    /**
+     * Read path lookup: builds the projection directly, no managed entity and no transaction needed
+     */
+    @Query(SNAPSHOT_SELECT + "where r.cacheKey = :cacheKey")
+    Optional<RepositorySnapshot> findSnapshot(@Param("cacheKey") String cacheKey);
+
+    /**
+     * Single IN query on the key column for a batch of repositories
+     */
+    @Query(SNAPSHOT_SELECT + "where r.cacheKey in :cacheKeys")
+    List<RepositorySnapshot> findSnapshots(@Param("cacheKeys") Collection<String> cacheKeys);
+
+    /**
+     * Drop the row of a repository that turned out to be renamed
+     */
+    @Modifying
+    @Query("delete from RepositoryEntity r where r.cacheKey = :cacheKey")
+    int deleteByCacheKey(@Param("cacheKey") String cacheKey);
+
+    /**
+     * Rows fetched after the cutoff, one page at a time, for warming the in-memory tier
+     */
+    Slice<RepositoryEntity> findByFetchedAtAfter(Instant cutoff, Pageable pageable);
+
+    /**
+     * Mark a row as confirmed by GitHub without rewriting its details
+     */
+    @Modifying
+    @Query("update RepositoryEntity r set r.fetchedAt = :fetchedAt where r.cacheKey = :cacheKey")
+    int touchFetchedAt(@Param("cacheKey") String cacheKey, @Param("fetchedAt") Instant fetchedAt);
 }
 
@@ -0,0 +1,70 @@
+package com.github.xqiii.cache.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decides whether a cached entry is fresh, stale or expired
+ *
+ * <ul>
+ *   <li>FRESH: younger than {@code github.cache.ttl.fresh}, served as is</li>
+ *   <li>STALE: within the following {@code github.cache.ttl.stale} window, served
+ *   immediately while a background refresh is scheduled</li>
+ *   <li>EXPIRED: older than both, reloaded from GitHub on the request path</li>
+ * </ul>
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class CacheFreshnessPolicy {
+
+    public enum Freshness {
+        FRESH,
+        STALE,
+        EXPIRED
+    }
+
+    private final Duration freshTtl;
+    private final Duration staleWindow;
+
+    public CacheFreshnessPolicy(@Value("${github.cache.ttl.fresh:PT1H}") Duration freshTtl,
+                                @Value("${github.cache.ttl.stale:PT23H}") Duration staleWindow) {
+        this.freshTtl = freshTtl;
+        this.staleWindow = staleWindow;
+    }
+
+    public Freshness evaluate(Instant fetchedAt) {
+        return evaluate(fetchedAt, Instant.now());
+    }
+
+    public Freshness evaluate(Instant fetchedAt, Instant now) {
+        Duration age = Duration.between(fetchedAt, now);
+        if (age.compareTo(freshTtl) < 0) {
+            return Freshness.FRESH;
+        }
+        if (age.compareTo(freshTtl.plus(staleWindow)) < 0) {
+            return Freshness.STALE;
+        }
+        return Freshness.EXPIRED;
+    }
+
+    /**
+     * Time left until the entry turns stale, zero once it has
+     */
+    public Duration remainingFreshTtl(Instant fetchedAt) {
+        Duration remaining = Duration.between(Instant.now(), fetchedAt.plus(freshTtl));
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    public Duration getFreshTtl() {
+        return freshTtl;
+    }
+
+    public Duration getStaleWindow() {
+        return staleWindow;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.xqiii.cache.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache lookup outcomes and database timings
+ *
+ * Meters are registered once and kept, so recording on the request path is a
+ * map lookup and an atomic increment.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class CacheMetrics {
+
+    /**
+     * How a single repository lookup was answered
+     */
+    public enum LookupResult {
+        /** Fresh entry from the in-memory tier */
+        HIT,
+        /** Stale entry served while a background refresh runs */
+        STALE,
+        /** Unexpired row from the database (or the write-behind queue) */
+        DB_HIT,
+        /** Fetched or revalidated from GitHub on the request path */
+        MISS,
+        /** Copied from the owner node in cluster mode, without calling GitHub */
+        PEER,
+        /** Answered 404 from the negative cache */
+        NEGATIVE,
+        /** Expired entry served because GitHub failed or the circuit is open */
+        FALLBACK,
+        /** Waited for a concurrent lookup of the same repository */
+        COALESCED
+    }
+
+    private final MeterRegistry registry;
+    private final Map<LookupResult, Counter> lookups = new EnumMap<>(LookupResult.class);
+    private final Map<String, Timer> databaseTimers = new ConcurrentHashMap<>();
+
+    public CacheMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (LookupResult result : LookupResult.values()) {
+            lookups.put(result, Counter.builder("github.cache.lookups")
+                .description("Repository lookups by outcome")
+                .tag("result", result.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        }
+    }
+
+    public void recordLookup(LookupResult result) {
+        lookups.get(result).increment();
+    }
+
+    /**
+     * Run a database operation, timing it under {@code github.cache.db.operations}
+     */
+    public <T> T timeDatabase(String operation, Supplier<T> call) {
+        return databaseTimers.computeIfAbsent(operation, name -> Timer.builder("github.cache.db.operations")
+                .description("Repository table queries and writes")
+                .tag("operation", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry))
+            .record(call);
+    }
+}
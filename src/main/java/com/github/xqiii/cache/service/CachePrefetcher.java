@@ -0,0 +1,184 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.service.PopularityTracker.HotKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes the most popular repositories before requests find them stale
+ *
+ * Every {@code github.cache.prefetch.interval}, starting right after startup,
+ * the top {@code github.cache.prefetch.top-k} keys of the {@link PopularityTracker}
+ * are checked; those missing, expired or due to turn stale within
+ * {@code github.cache.prefetch.refresh-ahead} are refreshed on the background
+ * refresh executor. At most {@code github.cache.prefetch.max-upstream-calls}
+ * refreshes are scheduled per run, repositories known to be missing are
+ * skipped, and refreshes run at background priority so the
+ * rate limiter keeps its reserve for user-facing misses. The hot keys and their
+ * counts are saved to {@code github.cache.prefetch.hot-keys-path} after each run
+ * and on shutdown, and restored on startup so the first run already knows what
+ * is popular. Enabled with {@code github.cache.prefetch.enabled=true}.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "github.cache.prefetch.enabled", havingValue = "true")
+public class CachePrefetcher implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachePrefetcher.class);
+
+    /**
+     * Outcome of one prefetch run
+     */
+    public record PrefetchResult(int considered, int scheduled) {
+    }
+
+    private final RepositoryService repositoryService;
+    private final PopularityTracker popularityTracker;
+    private final NegativeCache negativeCache;
+    private final RepositoryRefreshExecutor refreshExecutor;
+    private final CacheFreshnessPolicy freshnessPolicy;
+    private final int topK;
+    private final int maxUpstreamCalls;
+    private final Duration refreshAhead;
+    private final Duration interval;
+    private final Path hotKeysPath;
+    private final ScheduledExecutorService scheduler;
+
+    public CachePrefetcher(RepositoryService repositoryService,
+                           PopularityTracker popularityTracker,
+                           NegativeCache negativeCache,
+                           RepositoryRefreshExecutor refreshExecutor,
+                           CacheFreshnessPolicy freshnessPolicy,
+                           @Value("${github.cache.prefetch.top-k:100}") int topK,
+                           @Value("${github.cache.prefetch.max-upstream-calls:50}") int maxUpstreamCalls,
+                           @Value("${github.cache.prefetch.refresh-ahead:PT5M}") Duration refreshAhead,
+                           @Value("${github.cache.prefetch.interval:PT5M}") Duration interval,
+                           @Value("${github.cache.prefetch.hot-keys-path:${github.cache.data-dir:./data}/hot-keys.txt}") Path hotKeysPath) {
+        this.repositoryService = repositoryService;
+        this.popularityTracker = popularityTracker;
+        this.negativeCache = negativeCache;
+        this.refreshExecutor = refreshExecutor;
+        this.freshnessPolicy = freshnessPolicy;
+        this.topK = topK;
+        this.maxUpstreamCalls = maxUpstreamCalls;
+        this.refreshAhead = refreshAhead;
+        this.interval = interval;
+        this.hotKeysPath = hotKeysPath;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        restoreHotKeys();
+        scheduler.scheduleWithFixedDelay(this::prefetchQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public PrefetchResult prefetch() {
+        int considered = 0;
+        int scheduled = 0;
+        for (HotKey hotKey : popularityTracker.top(topK)) {
+            if (scheduled >= maxUpstreamCalls) {
+                break;
+            }
+            if (negativeCache.isKnownMissing(hotKey.key())) {
+                continue;
+            }
+            considered++;
+            RepositoryKey key = RepositoryKey.parse(hotKey.key());
+            String owner = key.owner();
+            String repositoryName = key.repositoryName();
+            CachedRepository entry = repositoryService.peekCachedRepository(owner, repositoryName);
+            if (entry != null && freshnessPolicy.remainingFreshTtl(entry.getFetchedAt()).compareTo(refreshAhead) > 0) {
+                continue;
+            }
+            if (refreshExecutor.submit(key,
+                    () -> repositoryService.refreshRepositoryDetails(owner, repositoryName))) {
+                scheduled++;
+            }
+        }
+        logger.info("Prefetch checked {} hot repositories, scheduled {} refreshes", considered, scheduled);
+        return new PrefetchResult(considered, scheduled);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        saveHotKeys();
+    }
+
+    private void prefetchQuietly() {
+        try {
+            prefetch();
+        } catch (RuntimeException e) {
+            logger.error("Prefetch run failed: {}", e.getMessage(), e);
+        }
+        saveHotKeys();
+    }
+
+    /**
+     * Write the hot keys as "count key" lines, replacing the previous file atomically
+     */
+    private void saveHotKeys() {
+        List<String> lines = popularityTracker.top(topK).stream()
+            .map(hotKey -> hotKey.count() + " " + hotKey.key())
+            .toList();
+        try {
+            Path parent = hotKeysPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, "hot-keys", ".tmp");
+            Files.write(temporary, lines, StandardCharsets.UTF_8);
+            Files.move(temporary, hotKeysPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to save hot keys to {}: {}", hotKeysPath, e.getMessage());
+        }
+    }
+
+    private void restoreHotKeys() {
+        if (!Files.exists(hotKeysPath)) {
+            return;
+        }
+        try {
+            int restored = 0;
+            for (String line : Files.readAllLines(hotKeysPath, StandardCharsets.UTF_8)) {
+                int space = line.indexOf(' ');
+                if (space > 0 && line.indexOf('/', space) > space + 1) {
+                    // Files written before keys were canonical may hold mixed-case names
+                    String key = RepositoryKey.parse(line.substring(space + 1)).value();
+                    popularityTracker.add(key, Long.parseLong(line.substring(0, space)));
+                    restored++;
+                }
+            }
+            logger.info("Restored {} hot keys from {}", restored, hotKeysPath);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable hot keys file {}: {}", hotKeysPath, e.getMessage());
+        }
+    }
+}
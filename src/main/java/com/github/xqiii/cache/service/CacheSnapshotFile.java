@@ -0,0 +1,251 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.RepositoryResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Binary snapshot of L1 cache entries
+ *
+ * Layout, big-endian:
+ * <pre>
+ * header (32 bytes)  magic "GRCS", version, entry count, reserved,
+ *                    written-at epoch millis, string table offset
+ * records (64 bytes) owner, repositoryName, fullName, description, cloneUrl
+ *                    as (offset, length) into the string table (length -1 for null),
+ *                    stars, createdAt nanos, createdAt epoch second (UTC),
+ *                    fetchedAt epoch millis
+ * string table       UTF-8 bytes, each distinct string stored once
+ * </pre>
+ * Files are written to a temporary file and moved into place, and read through
+ * a read-only memory mapping without copying the file onto the heap.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public final class CacheSnapshotFile {
+
+    static final int MAGIC = 0x47524353;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 64;
+
+    private static final int STRING_FIELDS = 5;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    /**
+     * One cached repository in a snapshot
+     */
+    public record Entry(String owner, String repositoryName, CachedRepository cached) {
+    }
+
+    private CacheSnapshotFile() {
+    }
+
+    /**
+     * Write the entries to the file, replacing it atomically
+     *
+     * @return number of entries written
+     */
+    public static int write(Path path, List<Entry> entries) throws IOException {
+        StringTable strings = new StringTable();
+        long[] references = new long[entries.size() * STRING_FIELDS];
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            RepositoryResponse response = entry.cached().getResponse();
+            int base = i * STRING_FIELDS;
+            references[base] = strings.add(entry.owner());
+            references[base + 1] = strings.add(entry.repositoryName());
+            references[base + 2] = strings.add(response.getFullName());
+            references[base + 3] = strings.add(response.getDescription());
+            references[base + 4] = strings.add(response.getCloneUrl());
+        }
+
+        long tableOffset = HEADER_BYTES + (long) RECORD_BYTES * entries.size();
+        long size = tableOffset + strings.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large: " + size + " bytes");
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(entries.size())
+                    .putInt(0)
+                    .putLong(System.currentTimeMillis())
+                    .putLong(tableOffset);
+                for (int i = 0; i < entries.size(); i++) {
+                    RepositoryResponse response = entries.get(i).cached().getResponse();
+                    for (int field = 0; field < STRING_FIELDS; field++) {
+                        long reference = references[i * STRING_FIELDS + field];
+                        buffer.putInt((int) (reference >> 32)).putInt((int) reference);
+                    }
+                    LocalDateTime createdAt = response.getCreatedAt();
+                    buffer.putInt(response.getStars() != null ? response.getStars() : NULL_INT)
+                        .putInt(createdAt != null ? createdAt.getNano() : 0)
+                        .putLong(createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : NULL_LONG)
+                        .putLong(entries.get(i).cached().getFetchedAt().toEpochMilli());
+                }
+                buffer.put(strings.bytes(), 0, strings.size());
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return entries.size();
+    }
+
+    /**
+     * Read every entry of the file in order
+     *
+     * @return number of entries read
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static int read(Path path, Consumer<Entry> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a cache snapshot: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a cache snapshot: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported cache snapshot version " + buffer.getInt(4) + ": " + path);
+            }
+            int count = buffer.getInt(8);
+            long tableOffset = buffer.getLong(24);
+            if (count < 0 || tableOffset != HEADER_BYTES + (long) RECORD_BYTES * count || tableOffset > size) {
+                throw new IOException("Corrupt cache snapshot: " + path);
+            }
+
+            StringReader strings = new StringReader(buffer, (int) tableOffset, (int) size);
+            for (int i = 0; i < count; i++) {
+                int record = HEADER_BYTES + i * RECORD_BYTES;
+                String owner = strings.read(record);
+                String repositoryName = strings.read(record + 8);
+                String fullName = strings.read(record + 16);
+                String description = strings.read(record + 24);
+                String cloneUrl = strings.read(record + 32);
+                int stars = buffer.getInt(record + 40);
+                int createdAtNanos = buffer.getInt(record + 44);
+                long createdAtSeconds = buffer.getLong(record + 48);
+                long fetchedAtMillis = buffer.getLong(record + 56);
+
+                RepositoryResponse response = new RepositoryResponse(
+                    fullName,
+                    description,
+                    cloneUrl,
+                    stars != NULL_INT ? stars : null,
+                    createdAtSeconds != NULL_LONG
+                        ? LocalDateTime.ofEpochSecond(createdAtSeconds, createdAtNanos, ZoneOffset.UTC) : null
+                );
+                consumer.accept(new Entry(owner, repositoryName,
+                    new CachedRepository(response, Instant.ofEpochMilli(fetchedAtMillis))));
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Deduplicating UTF-8 string table; a string is referenced by offset and length packed
+     * into one long, null by length -1
+     */
+    private static class StringTable {
+
+        private static final long NULL_REFERENCE = 0xFFFFFFFFL;
+
+        private final Map<String, Long> references = new HashMap<>();
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        long add(String value) {
+            if (value == null) {
+                return NULL_REFERENCE;
+            }
+            Long existing = references.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            if (size + encoded.length > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, size + encoded.length)];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+            int offset = size;
+            System.arraycopy(encoded, 0, bytes, offset, encoded.length);
+            size += encoded.length;
+            long reference = ((long) offset << 32) | encoded.length;
+            references.put(value, reference);
+            return reference;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Decodes (offset, length) references against the mapped string table
+     */
+    private static class StringReader {
+
+        private final ByteBuffer buffer;
+        private final int tableOffset;
+        private final int end;
+        private byte[] scratch = new byte[256];
+
+        StringReader(ByteBuffer buffer, int tableOffset, int end) {
+            this.buffer = buffer;
+            this.tableOffset = tableOffset;
+            this.end = end;
+        }
+
+        String read(int referencePosition) throws IOException {
+            int offset = buffer.getInt(referencePosition);
+            int length = buffer.getInt(referencePosition + 4);
+            if (length < 0) {
+                return null;
+            }
+            int start = tableOffset + offset;
+            if (offset < 0 || start + (long) length > end) {
+                throw new IOException("Corrupt cache snapshot string reference");
+            }
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.service.CacheFreshnessPolicy.Freshness;
+import com.github.xqiii.cache.service.CacheSnapshotFile.Entry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodic export and startup import of the L1 tier as a binary snapshot
+ *
+ * The snapshot ({@link CacheSnapshotFile}) is written every
+ * {@code github.cache.snapshot.interval} and on shutdown, and loaded on startup
+ * in the lifecycle phase just before {@link CacheWarmer}'s, so also before the
+ * web server accepts requests. Copying the file to a new node ships it a
+ * pre-warmed cache. Expired entries are skipped on load; loaded entries never
+ * replace ones already cached. Enabled with {@code github.cache.snapshot.enabled=true}.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+@ConditionalOnProperty(name = "github.cache.snapshot.enabled", havingValue = "true")
+public class CacheSnapshotService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+    private final RepositoryL1Cache l1Cache;
+    private final CacheFreshnessPolicy freshnessPolicy;
+    private final Path path;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public CacheSnapshotService(RepositoryL1Cache l1Cache,
+                                CacheFreshnessPolicy freshnessPolicy,
+                                @Value("${github.cache.snapshot.path:${github.cache.data-dir:./data}/l1-cache.snapshot}") Path path,
+                                @Value("${github.cache.snapshot.interval:PT5M}") Duration interval) {
+        this.l1Cache = l1Cache;
+        this.freshnessPolicy = freshnessPolicy;
+        this.path = path;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::exportQuietly, interval.toMillis(), interval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!Files.exists(path)) {
+            logger.info("No cache snapshot at {}, starting cold", path);
+            return;
+        }
+        try {
+            importSnapshot();
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable cache snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return CacheWarmer.PHASE - 1;
+    }
+
+    /**
+     * Load the snapshot into the L1 tier
+     *
+     * @return number of entries loaded
+     */
+    public int importSnapshot() throws IOException {
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        int read = CacheSnapshotFile.read(path, entry -> {
+            if (freshnessPolicy.evaluate(entry.cached().getFetchedAt()) != Freshness.EXPIRED) {
+                l1Cache.putIfAbsent(entry.owner(), entry.repositoryName(), entry.cached());
+                loaded.incrementAndGet();
+            }
+        });
+        logger.info("Loaded {} of {} snapshot entries from {} in {} ms", loaded.get(), read, path,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded.get();
+    }
+
+    /**
+     * Write the current L1 tier to the snapshot file
+     *
+     * @return number of entries written
+     */
+    public synchronized int exportSnapshot() throws IOException {
+        long start = System.nanoTime();
+        List<Entry> entries = new ArrayList<>((int) Math.min(l1Cache.estimatedSize(), Integer.MAX_VALUE));
+        l1Cache.forEach((key, cached) -> entries.add(new Entry(key.owner(), key.repositoryName(), cached)));
+        int written = CacheSnapshotFile.write(path, entries);
+        logger.info("Wrote {} entries to cache snapshot {} in {} ms", written, path,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        exportQuietly();
+    }
+
+    private void exportQuietly() {
+        try {
+            exportSnapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write cache snapshot {}: {}", path, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the persisted cache into the L1 tier on startup
+ *
+ * With a persistent store ({@code persistent} profile) the repositories table
+ * survives restarts; replaying it into memory before traffic arrives keeps a
+ * deploy from turning into a burst of cold misses against GitHub. The replay
+ * runs as a lifecycle phase that starts before the embedded web server opens
+ * its connector, so no request is accepted until it is done. Only
+ * unexpired rows are loaded, most recently fetched first, and at most
+ * {@code github.cache.warm.max-entries} of them, so startup time is bounded by
+ * the entry count rather than the table size.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+@ConditionalOnProperty(name = "github.cache.warm.enabled", havingValue = "true")
+public class CacheWarmer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+
+    /**
+     * Lifecycle phase of the startup replay: below the embedded web server's
+     * (Integer.MAX_VALUE - 2048 in Spring Boot 3.2), which starts accepting requests last
+     */
+    public static final int PHASE = Integer.MAX_VALUE - 4096;
+
+    /**
+     * Outcome of the last warm-up
+     */
+    public record WarmupResult(long entries, long elapsedMillis) {
+    }
+
+    private final RepositoryRepository repositoryRepository;
+    private final RepositoryL1Cache l1Cache;
+    private final CacheFreshnessPolicy freshnessPolicy;
+    private final int maxEntries;
+    private final int pageSize;
+
+    private volatile WarmupResult lastWarmup;
+    private volatile boolean running;
+
+    public CacheWarmer(RepositoryRepository repositoryRepository,
+                       RepositoryL1Cache l1Cache,
+                       CacheFreshnessPolicy freshnessPolicy,
+                       @Value("${github.cache.warm.max-entries:${github.cache.l1.max-entries:10000}}") int maxEntries,
+                       @Value("${github.cache.warm.page-size:1000}") int pageSize) {
+        this.repositoryRepository = repositoryRepository;
+        this.l1Cache = l1Cache;
+        this.freshnessPolicy = freshnessPolicy;
+        this.maxEntries = maxEntries;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void start() {
+        warm();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public WarmupResult warm() {
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now().minus(freshnessPolicy.getFreshTtl()).minus(freshnessPolicy.getStaleWindow());
+        long loaded = 0;
+        int page = 0;
+        Slice<RepositoryEntity> slice;
+        do {
+            int size = (int) Math.min(pageSize, maxEntries - loaded);
+            if (size <= 0) {
+                break;
+            }
+            slice = repositoryRepository.findByFetchedAtAfter(cutoff,
+                PageRequest.of(page++, pageSize, Sort.by(Sort.Direction.DESC, "fetchedAt")));
+            for (RepositoryEntity entity : slice.getContent().subList(0, Math.min(size, slice.getNumberOfElements()))) {
+                l1Cache.putIfAbsent(entity.getOwner(), entity.getRepositoryName(), entity.toCachedRepository());
+                loaded++;
+            }
+        } while (slice.hasNext());
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastWarmup = new WarmupResult(loaded, elapsedMillis);
+        logger.info("Warmed L1 cache with {} entries in {} ms ({} entries/s)", loaded, elapsedMillis,
+            elapsedMillis > 0 ? loaded * 1000 / elapsedMillis : loaded);
+        return lastWarmup;
+    }
+
+    public WarmupResult getLastWarmup() {
+        return lastWarmup;
+    }
+}
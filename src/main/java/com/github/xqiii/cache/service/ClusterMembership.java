@@ -0,0 +1,151 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.dto.RepositoryKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster membership and key ownership for peer cache fill
+ *
+ * The nodes are this replica's {@code github.cache.cluster.self-url} plus the
+ * peers listed in {@code github.cache.cluster.peers-file} (one base URL per
+ * line, {@code #} starts a comment) or, without a file, in
+ * {@code github.cache.cluster.peers}. The file is re-read every
+ * {@code github.cache.cluster.reload-interval} when it has changed, so peers
+ * can be added or removed without a restart; an unreadable file keeps the
+ * current ring. Enabled with {@code github.cache.cluster.enabled=true}.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+@ConditionalOnProperty(name = "github.cache.cluster.enabled", havingValue = "true")
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final String selfUrl;
+    private final List<String> staticPeers;
+    private final Path peersFile;
+    private final int virtualNodes;
+    private final ScheduledExecutorService reloader;
+    private volatile ConsistentHashRing ring;
+    private FileTime peersFileModified;
+
+    public ClusterMembership(@Value("${github.cache.cluster.self-url:}") String selfUrl,
+                             @Value("${github.cache.cluster.peers:}") List<String> peers,
+                             @Value("${github.cache.cluster.peers-file:}") String peersFile,
+                             @Value("${github.cache.cluster.virtual-nodes:128}") int virtualNodes,
+                             @Value("${github.cache.cluster.reload-interval:PT10S}") Duration reloadInterval) {
+        if (selfUrl.isBlank()) {
+            throw new IllegalStateException("github.cache.cluster.self-url is required in cluster mode");
+        }
+        this.selfUrl = normalize(selfUrl);
+        this.staticPeers = peers;
+        this.peersFile = peersFile.isBlank() ? null : Path.of(peersFile);
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing(withSelf(staticPeers), virtualNodes);
+        if (this.peersFile == null) {
+            this.reloader = null;
+        } else {
+            reload();
+            this.reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cluster-peers-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.reloader.scheduleWithFixedDelay(this::reload, reloadInterval.toMillis(), reloadInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        }
+        logger.info("Cluster mode enabled as {} with nodes {}", this.selfUrl, ring.nodes());
+    }
+
+    /**
+     * Base URL of the peer owning the key, or empty when this node owns it
+     */
+    public Optional<String> ownerPeer(RepositoryKey key) {
+        String owner = ring.ownerOf(key);
+        return owner.equals(selfUrl) ? Optional.empty() : Optional.of(owner);
+    }
+
+    public String getSelfUrl() {
+        return selfUrl;
+    }
+
+    public List<String> nodes() {
+        return ring.nodes();
+    }
+
+    /**
+     * Rebuild the ring from the peers file if it changed since the last read
+     *
+     * @return whether the ring was rebuilt
+     */
+    public synchronized boolean reload() {
+        if (peersFile == null) {
+            return false;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(peersFile);
+            if (modified.equals(peersFileModified)) {
+                return false;
+            }
+            List<String> peers = new ArrayList<>();
+            for (String line : Files.readAllLines(peersFile, StandardCharsets.UTF_8)) {
+                int comment = line.indexOf('#');
+                peers.add(comment >= 0 ? line.substring(0, comment) : line);
+            }
+            ring = new ConsistentHashRing(withSelf(peers), virtualNodes);
+            peersFileModified = modified;
+            logger.info("Cluster nodes loaded from {}: {}", peersFile, ring.nodes());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Keeping cluster nodes {}, cannot read peers file {}: {}", ring.nodes(), peersFile,
+                e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    private Set<String> withSelf(Collection<String> peers) {
+        Set<String> nodes = new LinkedHashSet<>();
+        nodes.add(selfUrl);
+        for (String peer : peers) {
+            if (!peer.isBlank()) {
+                nodes.add(normalize(peer));
+            }
+        }
+        return nodes;
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -1,21 +1,33 @@
 package com.github.xqiii.cache.service;
 
+import com.github.xqiii.cache.client.GithubCredential;
+import com.github.xqiii.cache.client.GithubHttpClient;
+import com.github.xqiii.cache.client.GithubRateLimiter;
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker;
+import com.github.xqiii.cache.client.UpstreamConcurrencyLimiter;
+import com.github.xqiii.cache.client.UpstreamHedger;
 import com.github.xqiii.cache.dto.GithubApiResponse;
 import com.github.xqiii.cache.exception.BizException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
+import java.util.Optional;
+
 /**
  * GitHub API service
- * 
+ *
  * @author xiuqiii
  * @date 2025-11-29
  */
@@ -23,62 +35,147 @@ import org.springframework.web.client.RestClientException;
 public class GithubApiService {
 
     private static final Logger logger = LoggerFactory.getLogger(GithubApiService.class);
-    
+
     private final RestTemplate restTemplate;
     private final String githubApiBaseUrl;
+    private final UpstreamConcurrencyLimiter concurrencyLimiter;
+    private final GithubRateLimiter rateLimiter;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final UpstreamHedger hedger;
+
+    /**
+     * Present when {@code github.api.fetcher=graphql}: plain fetches are then coalesced into GraphQL batches
+     */
+    @Autowired(required = false)
+    private GithubGraphqlBatcher graphqlBatcher;
 
     public GithubApiService(@Value("${github.api.base-url}") String githubApiBaseUrl,
-                            @Value("${github.api.connect-timeout:5000}") int connectTimeout,
-                            @Value("${github.api.read-timeout:10000}") int readTimeout) {
-        this.restTemplate = new RestTemplate();
+                            GithubHttpClient githubHttpClient,
+                            UpstreamConcurrencyLimiter concurrencyLimiter,
+                            GithubRateLimiter rateLimiter,
+                            UpstreamCircuitBreaker circuitBreaker,
+                            UpstreamHedger hedger) {
+        this.restTemplate = githubHttpClient.newRestTemplate();
         this.githubApiBaseUrl = githubApiBaseUrl;
-        
-        // Configure timeout settings
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(connectTimeout);
-        factory.setReadTimeout(readTimeout);
-        this.restTemplate.setRequestFactory(factory);
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.hedger = hedger;
     }
 
     public GithubApiResponse fetchRepositoryDetails(String owner, String repositoryName) {
+        if (graphqlBatcher != null) {
+            return graphqlBatcher.fetchRepositoryDetails(owner, repositoryName);
+        }
+        ResponseEntity<GithubApiResponse> response = exchange(owner, repositoryName, new HttpHeaders());
+        return toGithubApiResponse(owner, repositoryName, response);
+    }
+
+    /**
+     * Conditionally fetch repository details using the validators from a previous response
+     *
+     * A 304 Not Modified does not count against the GitHub rate limit and carries no body.
+     *
+     * @return the new details, or empty if GitHub answered 304 Not Modified
+     */
+    public Optional<GithubApiResponse> fetchRepositoryDetailsIfModified(String owner, String repositoryName,
+                                                                        String etag, String lastModified) {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        if (lastModified != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+
+        ResponseEntity<GithubApiResponse> response = exchange(owner, repositoryName, headers);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            logger.debug("Repository not modified: {}/{}", owner, repositoryName);
+            return Optional.empty();
+        }
+        return Optional.of(toGithubApiResponse(owner, repositoryName, response));
+    }
+
+    private ResponseEntity<GithubApiResponse> exchange(String owner, String repositoryName, HttpHeaders headers) {
         String url = String.format("%s/repos/%s/%s", githubApiBaseUrl, owner, repositoryName);
-        
-        logger.info("Fetching repository details from GitHub API: {}", url);
-        
-        try {
-            ResponseEntity<GithubApiResponse> response = restTemplate.getForEntity(
-                url, 
-                GithubApiResponse.class
-            );
-            
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                logger.info("Successfully fetched repository details for {}/{}", owner, repositoryName);
-                return response.getBody();
-            } else {
-                logger.error("Unexpected response from GitHub API: {}", response.getStatusCode());
+
+        logger.debug("Fetching repository details from GitHub API: {}", url);
+
+        while (true) {
+            GithubCredential credential = rateLimiter.acquire();
+            HttpHeaders requestHeaders = new HttpHeaders();
+            requestHeaders.addAll(headers);
+            credential.authorize(requestHeaders);
+            try {
+                // A hedge is a second attempt of the same call: the breaker sees one outcome, each attempt takes
+                // a slot and its own rate-limit budget on the same credential
+                ResponseEntity<GithubApiResponse> response = circuitBreaker.execute(() -> hedger.execute(
+                    () -> concurrencyLimiter.execute(() -> restTemplate.exchange(
+                        url,
+                        HttpMethod.GET,
+                        new HttpEntity<>(requestHeaders),
+                        GithubApiResponse.class
+                    )),
+                    () -> rateLimiter.tryAcquireHedge(credential)));
+                rateLimiter.update(credential, response.getHeaders());
+                return response;
+            } catch (HttpClientErrorException.NotFound e) {
+                rateLimiter.update(credential, e.getResponseHeaders());
+                logger.debug("Repository not found: {}/{}", owner, repositoryName);
+                throw new BizException(
+                    "REPOSITORY_NOT_FOUND",
+                    "Repository not found: " + owner + "/" + repositoryName,
+                    HttpStatus.NOT_FOUND.value(),
+                    e
+                );
+            } catch (HttpStatusCodeException e) {
+                rateLimiter.update(credential, e.getResponseHeaders());
+                int status = e.getStatusCode().value();
+                if ((status == HttpStatus.FORBIDDEN.value() || status == HttpStatus.TOO_MANY_REQUESTS.value())
+                        && rateLimiter.isExhausted(credential)) {
+                    logger.warn("GitHub API rate limit hit for {}/{} with {}", owner, repositoryName, credential);
+                    // Another token may still have budget; acquire() fails fast once none has
+                    continue;
+                }
+                // Only a rejected token is worth retrying with another; a per-resource 403 fails this call alone
+                if (GithubRateLimiter.isCredentialRejected(status, e.getResponseHeaders(), e.getResponseBodyAsString())
+                        && rateLimiter.disable(credential, status)) {
+                    continue;
+                }
+                logger.error("Error calling GitHub API: {}", e.getMessage(), e);
+                throw new BizException(
+                    "GITHUB_API_ERROR",
+                    "Error calling GitHub API: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    e
+                );
+            } catch (RestClientException e) {
+                logger.error("Error calling GitHub API: {}", e.getMessage(), e);
                 throw new BizException(
                     "GITHUB_API_ERROR",
-                    "Failed to fetch repository details from GitHub API",
-                    HttpStatus.INTERNAL_SERVER_ERROR.value()
+                    "Error calling GitHub API: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    e
                 );
             }
-        } catch (HttpClientErrorException.NotFound e) {
-            logger.error("Repository not found: {}/{}", owner, repositoryName);
-            throw new BizException(
-                "REPOSITORY_NOT_FOUND",
-                "Repository not found: " + owner + "/" + repositoryName,
-                HttpStatus.NOT_FOUND.value(),
-                e
-            );
-        } catch (RestClientException e) {
-            logger.error("Error calling GitHub API: {}", e.getMessage(), e);
+        }
+    }
+
+    private GithubApiResponse toGithubApiResponse(String owner, String repositoryName,
+                                                  ResponseEntity<GithubApiResponse> response) {
+        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+            logger.debug("Successfully fetched repository details for {}/{}", owner, repositoryName);
+            GithubApiResponse body = response.getBody();
+            body.setEtag(response.getHeaders().getETag());
+            body.setLastModified(response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+            return body;
+        } else {
+            logger.error("Unexpected response from GitHub API: {}", response.getStatusCode());
             throw new BizException(
                 "GITHUB_API_ERROR",
-                "Error calling GitHub API: " + e.getMessage(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                e
+                "Failed to fetch repository details from GitHub API",
+                HttpStatus.INTERNAL_SERVER_ERROR.value()
             );
         }
     }
 }
-
@@ -0,0 +1,277 @@
+package com.github.xqiii.cache.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.xqiii.cache.client.GithubHttpClient;
+import com.github.xqiii.cache.client.GithubRateLimiter;
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker;
+import com.github.xqiii.cache.client.UpstreamConcurrencyLimiter;
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.exception.BizException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces repository fetches into aliased GitHub GraphQL queries
+ *
+ * Fetches arriving within {@code github.api.graphql.batch-window-ms} of the
+ * first one, up to {@code github.api.graphql.max-batch-size} distinct
+ * repositories, are sent as a single query and the results are fanned back out
+ * to the waiting callers. Enabled with {@code github.api.fetcher=graphql};
+ * conditional revalidation still goes through REST because GraphQL has no ETags.
+ * Each query is sent with the pooled token that has the most REST budget left;
+ * GraphQL points are a separate budget and are not metered here. GitHub rejects
+ * unauthenticated GraphQL queries, so startup fails when no token is configured.
+ * A caller waits for the window plus a whole upstream call: the in-flight slot,
+ * the connect and the read.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+@ConditionalOnProperty(name = "github.api.fetcher", havingValue = "graphql")
+public class GithubGraphqlBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(GithubGraphqlBatcher.class);
+
+    private static final String REPOSITORY_FIELDS = "nameWithOwner description url stargazerCount createdAt";
+
+    private final RestTemplate restTemplate;
+    private final UpstreamConcurrencyLimiter concurrencyLimiter;
+    private final GithubRateLimiter rateLimiter;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final String graphqlUrl;
+    private final long batchWindowMillis;
+    private final int maxBatchSize;
+    private final long waitTimeoutMillis;
+
+    private final ScheduledExecutorService windowScheduler;
+    private final ExecutorService flushExecutor;
+
+    private final Object lock = new Object();
+    private Map<RepositoryKey, PendingFetch> pending = new LinkedHashMap<>();
+
+    public GithubGraphqlBatcher(GithubHttpClient githubHttpClient,
+                                UpstreamConcurrencyLimiter concurrencyLimiter,
+                                GithubRateLimiter rateLimiter,
+                                UpstreamCircuitBreaker circuitBreaker,
+                                @Value("${github.api.graphql.url:${github.api.base-url}/graphql}") String graphqlUrl,
+                                @Value("${github.api.graphql.batch-window-ms:10}") long batchWindowMillis,
+                                @Value("${github.api.graphql.max-batch-size:50}") int maxBatchSize,
+                                @Value("${github.api.connect-timeout:5000}") long connectTimeoutMillis,
+                                @Value("${github.api.read-timeout:10000}") long readTimeoutMillis,
+                                @Value("${github.api.in-flight-acquire-timeout-ms:1000}") long acquireTimeoutMillis) {
+        if (rateLimiter.getTokenCount() == 0) {
+            throw new IllegalStateException("github.api.fetcher=graphql requires github.api.tokens: "
+                + "GitHub rejects unauthenticated GraphQL queries");
+        }
+        this.restTemplate = githubHttpClient.newRestTemplate();
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.graphqlUrl = graphqlUrl;
+        this.batchWindowMillis = batchWindowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.waitTimeoutMillis = batchWindowMillis + acquireTimeoutMillis + connectTimeoutMillis + readTimeoutMillis;
+        this.windowScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "graphql-batch-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "graphql-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("GitHub GraphQL batching enabled: {} (window {} ms, max {} repositories)",
+            graphqlUrl, batchWindowMillis, maxBatchSize);
+    }
+
+    public GithubApiResponse fetchRepositoryDetails(String owner, String repositoryName) {
+        CompletableFuture<GithubApiResponse> future = enqueue(owner, repositoryName);
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw apiError("Error calling GitHub GraphQL API: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new BizException(
+                "UPSTREAM_TIMEOUT",
+                "Timed out waiting for GitHub GraphQL batch for " + owner + "/" + repositoryName,
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                e
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw apiError("Interrupted while waiting for GitHub GraphQL batch", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        windowScheduler.shutdownNow();
+        flushExecutor.shutdownNow();
+    }
+
+    private CompletableFuture<GithubApiResponse> enqueue(String owner, String repositoryName) {
+        RepositoryKey key = RepositoryKey.of(owner, repositoryName);
+        Map<RepositoryKey, PendingFetch> full = null;
+        CompletableFuture<GithubApiResponse> future;
+        synchronized (lock) {
+            PendingFetch existing = pending.get(key);
+            if (existing != null) {
+                return existing.future();
+            }
+            PendingFetch fetch = new PendingFetch(owner, repositoryName, new CompletableFuture<>());
+            future = fetch.future();
+            boolean firstInWindow = pending.isEmpty();
+            pending.put(key, fetch);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (firstInWindow) {
+                windowScheduler.schedule(this::flushWindow, batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            Map<RepositoryKey, PendingFetch> batch = full;
+            flushExecutor.execute(() -> execute(batch));
+        }
+        return future;
+    }
+
+    private void flushWindow() {
+        Map<RepositoryKey, PendingFetch> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            flushExecutor.execute(() -> execute(batch));
+        }
+    }
+
+    private Map<RepositoryKey, PendingFetch> takePending() {
+        Map<RepositoryKey, PendingFetch> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void execute(Map<RepositoryKey, PendingFetch> batch) {
+        List<PendingFetch> fetches = new ArrayList<>(batch.values());
+        StringBuilder declarations = new StringBuilder();
+        StringBuilder selections = new StringBuilder();
+        Map<String, Object> variables = new HashMap<>();
+        for (int i = 0; i < fetches.size(); i++) {
+            PendingFetch fetch = fetches.get(i);
+            if (i > 0) {
+                declarations.append(", ");
+            }
+            declarations.append("$o").append(i).append(": String!, $n").append(i).append(": String!");
+            selections.append(" r").append(i).append(": repository(owner: $o").append(i)
+                .append(", name: $n").append(i).append(") { ").append(REPOSITORY_FIELDS).append(" }");
+            variables.put("o" + i, fetch.owner());
+            variables.put("n" + i, fetch.repositoryName());
+        }
+        String query = "query(" + declarations + ") {" + selections + " }";
+
+        logger.debug("Fetching {} repositories with one GitHub GraphQL query", fetches.size());
+        HttpHeaders headers = new HttpHeaders();
+        rateLimiter.currentCredential().authorize(headers);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(Map.of("query", query, "variables", variables), headers);
+        JsonNode body;
+        try {
+            body = circuitBreaker.execute(() -> concurrencyLimiter.execute(
+                () -> restTemplate.postForObject(graphqlUrl, request, JsonNode.class)));
+        } catch (RestClientException e) {
+            logger.error("Error calling GitHub GraphQL API: {}", e.getMessage(), e);
+            BizException failure = apiError("Error calling GitHub GraphQL API: " + e.getMessage(), e);
+            fetches.forEach(fetch -> fetch.future().completeExceptionally(failure));
+            return;
+        } catch (RuntimeException e) {
+            fetches.forEach(fetch -> fetch.future().completeExceptionally(e));
+            return;
+        }
+
+        JsonNode data = body != null ? body.path("data") : null;
+        Map<String, String> errorTypes = aliasErrorTypes(body);
+        for (int i = 0; i < fetches.size(); i++) {
+            PendingFetch fetch = fetches.get(i);
+            String alias = "r" + i;
+            JsonNode repository = data != null ? data.path(alias) : null;
+            String errorType = errorTypes.get(alias);
+            boolean notFound = "NOT_FOUND".equals(errorType)
+                || (errorType == null && data != null && data.has(alias));
+            if (repository != null && repository.isObject()) {
+                fetch.future().complete(toGithubApiResponse(repository));
+            } else if (notFound) {
+                fetch.future().completeExceptionally(new BizException(
+                    "REPOSITORY_NOT_FOUND",
+                    "Repository not found: " + fetch.owner() + "/" + fetch.repositoryName(),
+                    HttpStatus.NOT_FOUND.value()
+                ));
+            } else {
+                fetch.future().completeExceptionally(
+                    apiError("GitHub GraphQL API returned no data for " + fetch.owner() + "/" + fetch.repositoryName(), null));
+            }
+        }
+    }
+
+    /**
+     * Map each failed alias to the GraphQL error type reported for it
+     */
+    private static Map<String, String> aliasErrorTypes(JsonNode body) {
+        Map<String, String> types = new HashMap<>();
+        if (body == null) {
+            return types;
+        }
+        for (JsonNode error : body.path("errors")) {
+            JsonNode path = error.path("path");
+            if (path.isArray() && !path.isEmpty()) {
+                types.put(path.get(0).asText(), error.path("type").asText(null));
+            }
+        }
+        return types;
+    }
+
+    private static GithubApiResponse toGithubApiResponse(JsonNode repository) {
+        GithubApiResponse response = new GithubApiResponse();
+        response.setFullName(repository.path("nameWithOwner").asText(null));
+        response.setDescription(repository.path("description").isNull()
+            ? null : repository.path("description").asText(null));
+        String url = repository.path("url").asText(null);
+        response.setCloneUrl(url != null ? url + ".git" : null);
+        response.setStargazersCount(repository.path("stargazerCount").asInt());
+        response.setCreatedAt(repository.path("createdAt").asText(null));
+        return response;
+    }
+
+    private static BizException apiError(String message, Throwable cause) {
+        return new BizException("GITHUB_API_ERROR", message, HttpStatus.INTERNAL_SERVER_ERROR.value(), cause);
+    }
+
+    private record PendingFetch(String owner, String repositoryName, CompletableFuture<GithubApiResponse> future) {
+    }
+}
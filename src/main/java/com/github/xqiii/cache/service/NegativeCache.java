@@ -0,0 +1,113 @@
+package com.github.xqiii.cache.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers repositories GitHub reported as missing
+ *
+ * A 404 from GitHub is cached for {@code github.cache.negative.ttl}, so
+ * repeated lookups of a non-existent repository are answered without touching
+ * the database or the rate limit. A {@link BloomFilter} of the missing keys is
+ * checked first: keys it has never seen, i.e. almost every real repository,
+ * skip the negative cache lookup entirely. Since a Bloom filter cannot forget,
+ * it is rebuilt from the unexpired entries every TTL.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class NegativeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NegativeCache.class);
+
+    private final boolean enabled;
+    private final long maxEntries;
+    private final double falsePositiveRate;
+    private final Cache<String, Instant> missing;
+    private final ScheduledExecutorService rebuildScheduler;
+
+    private volatile BloomFilter filter;
+
+    public NegativeCache(@Value("${github.cache.negative.enabled:true}") boolean enabled,
+                         @Value("${github.cache.negative.ttl:PT5M}") Duration ttl,
+                         @Value("${github.cache.negative.max-entries:100000}") long maxEntries,
+                         @Value("${github.cache.negative.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.missing = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttl)
+            .build();
+        this.filter = new BloomFilter(maxEntries, falsePositiveRate);
+        this.rebuildScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "negative-cache-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rebuildScheduler.scheduleWithFixedDelay(this::rebuildFilter, ttl.toMillis(), ttl.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * True if GitHub reported the repository missing within the TTL
+     */
+    public boolean isKnownMissing(String key) {
+        if (!enabled || !filter.mightContain(key)) {
+            return false;
+        }
+        return missing.getIfPresent(key) != null;
+    }
+
+    public void recordMissing(String key) {
+        if (!enabled) {
+            return;
+        }
+        missing.put(key, Instant.now());
+        filter.put(key);
+        logger.debug("Repository recorded as missing: {}", key);
+    }
+
+    public void invalidate(String key) {
+        missing.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        missing.invalidateAll();
+        filter = new BloomFilter(maxEntries, falsePositiveRate);
+    }
+
+    public long estimatedSize() {
+        return missing.estimatedSize();
+    }
+
+    /**
+     * Replace the filter with one holding only unexpired keys
+     *
+     * A key recorded while the new filter is being filled may be missed by it;
+     * that key then costs one more upstream lookup, never a wrong answer.
+     */
+    void rebuildFilter() {
+        missing.cleanUp();
+        BloomFilter rebuilt = new BloomFilter(maxEntries, falsePositiveRate);
+        missing.asMap().keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildScheduler.shutdownNow();
+    }
+}
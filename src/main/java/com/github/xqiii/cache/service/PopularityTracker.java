@@ -0,0 +1,159 @@
+package com.github.xqiii.cache.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Request popularity per repository key
+ *
+ * A count-min sketch of {@code depth} rows by {@code width} atomic counters
+ * estimates how often each key was requested, lock-free and in fixed memory.
+ * Every {@code decay-interval} all counters are halved, so the estimate
+ * favours recent traffic. Keys whose estimate reaches the current top are kept
+ * as candidates (at most {@code candidates} of them) so the hottest keys can be
+ * listed without scanning every key ever seen.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class PopularityTracker {
+
+    /**
+     * A key with its estimated request count
+     */
+    public record HotKey(String key, long count) {
+    }
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+    private final int maxCandidates;
+    private final Map<String, Boolean> candidates = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService decayScheduler;
+
+    private volatile long admissionThreshold;
+
+    public PopularityTracker(@Value("${github.cache.popularity.depth:4}") int depth,
+                             @Value("${github.cache.popularity.width:4096}") int width,
+                             @Value("${github.cache.popularity.candidates:1000}") int maxCandidates,
+                             @Value("${github.cache.popularity.decay-interval:PT10M}") Duration decayInterval) {
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(width, 2) - 1) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(depth * this.width);
+        this.maxCandidates = maxCandidates;
+        this.decayScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "popularity-decay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.decayScheduler.scheduleWithFixedDelay(this::decay, decayInterval.toMillis(), decayInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Count one request for the key
+     *
+     * @return the new estimated count
+     */
+    public long record(String key) {
+        return add(key, 1);
+    }
+
+    /**
+     * Add to the key's count, e.g. to restore counts saved before a restart
+     */
+    public long add(String key, long count) {
+        int hash = spread(key.hashCode());
+        int secondHash = spread(hash * 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((hash + row * secondHash) & mask);
+            estimate = Math.min(estimate, counters.addAndGet(index, count));
+        }
+        if (estimate >= admissionThreshold && !candidates.containsKey(key)) {
+            candidates.put(key, Boolean.TRUE);
+            if (candidates.size() > maxCandidates * 2) {
+                trimCandidates();
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Estimated request count of the key
+     */
+    public long estimate(String key) {
+        int hash = spread(key.hashCode());
+        int secondHash = spread(hash * 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + ((hash + row * secondHash) & mask)));
+        }
+        return estimate;
+    }
+
+    /**
+     * The most requested keys, most popular first
+     */
+    public List<HotKey> top(int limit) {
+        return candidates.keySet().stream()
+            .map(key -> new HotKey(key, estimate(key)))
+            .filter(hotKey -> hotKey.count() > 0)
+            .sorted(Comparator.comparingLong(HotKey::count).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * Halve every counter so old traffic fades out
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, value -> value >> 1);
+        }
+        admissionThreshold >>= 1;
+        candidates.keySet().removeIf(key -> estimate(key) == 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        decayScheduler.shutdownNow();
+    }
+
+    /**
+     * Keep the most popular candidates and raise the bar for new ones to the least popular kept
+     */
+    private synchronized void trimCandidates() {
+        if (candidates.size() <= maxCandidates) {
+            return;
+        }
+        List<HotKey> ranked = top(Integer.MAX_VALUE);
+        for (int i = maxCandidates; i < ranked.size(); i++) {
+            candidates.remove(ranked.get(i).key());
+        }
+        if (ranked.size() >= maxCandidates) {
+            admissionThreshold = ranked.get(maxCandidates - 1).count();
+        }
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
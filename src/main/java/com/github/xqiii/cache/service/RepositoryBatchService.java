@@ -0,0 +1,214 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.dto.BatchRepositoryItem;
+import com.github.xqiii.cache.dto.BatchRepositoryResponse;
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.RepositoryIdentifier;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.exception.BizException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch repository lookup
+ *
+ * Hits are read from the in-memory tier and then with a single IN query. Misses
+ * are resolved through {@link RepositoryService#getRepositoryDetails}, so they
+ * keep single-flight and TTL semantics, by at most
+ * {@code github.cache.batch.parallelism} workers per batch: the request thread
+ * and helpers from a pool of {@code github.cache.batch.max-threads} threads
+ * shared by all batches. Concurrent batches queue for the pool rather than
+ * adding threads, and the request thread keeps its batch moving meanwhile.
+ * Failures are reported per item and never fail the whole batch; a miss a
+ * helper has not resolved within {@code github.cache.single-flight.timeout-ms}
+ * of the request thread running out of work is reported as UPSTREAM_TIMEOUT.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Service
+public class RepositoryBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryBatchService.class);
+
+    private final RepositoryService repositoryService;
+    private final int maxBatchSize;
+    private final int parallelism;
+    private final long missTimeoutMillis;
+    private final ThreadPoolExecutor missExecutor;
+
+    public RepositoryBatchService(RepositoryService repositoryService,
+                                  @Value("${github.cache.batch.max-size:200}") int maxBatchSize,
+                                  @Value("${github.cache.batch.parallelism:8}") int parallelism,
+                                  @Value("${github.cache.batch.max-threads:32}") int maxThreads,
+                                  @Value("${github.cache.single-flight.timeout-ms:15000}") long missTimeoutMillis) {
+        this.repositoryService = repositoryService;
+        this.maxBatchSize = maxBatchSize;
+        this.parallelism = parallelism;
+        this.missTimeoutMillis = missTimeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.missExecutor = new ThreadPoolExecutor(
+            maxThreads,
+            maxThreads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "repo-batch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.missExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public BatchRepositoryResponse getRepositoryDetailsBatch(List<RepositoryIdentifier> identifiers) {
+        validate(identifiers);
+
+        // Deduplicate while keeping the first occurrence of each repository
+        Map<RepositoryKey, RepositoryIdentifier> unique = new LinkedHashMap<>();
+        for (RepositoryIdentifier identifier : identifiers) {
+            unique.putIfAbsent(RepositoryKey.of(identifier.getOwner(), identifier.getRepositoryName()), identifier);
+        }
+
+        Map<RepositoryKey, CachedRepository> cached = repositoryService.getCachedRepositories(unique.values());
+        Map<RepositoryKey, BatchRepositoryItem> resolved = new ConcurrentHashMap<>();
+        cached.forEach((key, entry) -> {
+            RepositoryIdentifier identifier = unique.get(key);
+            resolved.put(key, BatchRepositoryItem.success(
+                identifier.getOwner(), identifier.getRepositoryName(), entry.getResponse()));
+        });
+
+        List<Map.Entry<RepositoryKey, RepositoryIdentifier>> misses = unique.entrySet().stream()
+            .filter(entry -> !resolved.containsKey(entry.getKey()))
+            .toList();
+        if (!misses.isEmpty()) {
+            logger.debug("Batch lookup: {} repositories, {} misses", unique.size(), misses.size());
+            resolveMisses(misses, resolved);
+        }
+
+        List<BatchRepositoryItem> results = new ArrayList<>(identifiers.size());
+        for (RepositoryIdentifier identifier : identifiers) {
+            results.add(resolved.get(RepositoryKey.of(identifier.getOwner(), identifier.getRepositoryName())));
+        }
+        return new BatchRepositoryResponse(results);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        missExecutor.shutdownNow();
+    }
+
+    /**
+     * Drain the miss queue with a bounded number of workers, the calling thread being one of them
+     *
+     * The caller waits for its misses, not for its helpers: a helper still queued for the
+     * shared pool once the queue is drained finds nothing left to do, so a batch never
+     * waits on other batches' work. Once drained, the caller waits at most the single-flight
+     * timeout for the misses its helpers are still resolving, and reports those as failures.
+     */
+    private void resolveMisses(List<Map.Entry<RepositoryKey, RepositoryIdentifier>> misses,
+                               Map<RepositoryKey, BatchRepositoryItem> resolved) {
+        Queue<Map.Entry<RepositoryKey, RepositoryIdentifier>> queue = new ConcurrentLinkedQueue<>(misses);
+        int workers = Math.min(parallelism, misses.size());
+        CountDownLatch remaining = new CountDownLatch(misses.size());
+        for (int i = 1; i < workers; i++) {
+            missExecutor.execute(() -> drain(queue, resolved, remaining));
+        }
+        drain(queue, resolved, remaining);
+        boolean completed;
+        try {
+            completed = remaining.await(missTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BizException(
+                "INTERNAL_SERVER_ERROR",
+                "Interrupted while resolving batch misses",
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e
+            );
+        }
+        if (!completed) {
+            logger.warn("Batch misses still unresolved after {} ms, reporting them as timed out", missTimeoutMillis);
+        }
+        for (Map.Entry<RepositoryKey, RepositoryIdentifier> miss : misses) {
+            // Absent after the latch completed only when a helper died with an Error
+            resolved.computeIfAbsent(miss.getKey(), key -> unresolved(miss.getValue(), completed));
+        }
+    }
+
+    private void drain(Queue<Map.Entry<RepositoryKey, RepositoryIdentifier>> misses,
+                       Map<RepositoryKey, BatchRepositoryItem> resolved, CountDownLatch remaining) {
+        Map.Entry<RepositoryKey, RepositoryIdentifier> miss;
+        while ((miss = misses.poll()) != null) {
+            try {
+                resolved.put(miss.getKey(), resolve(miss.getValue()));
+            } finally {
+                remaining.countDown();
+            }
+        }
+    }
+
+    private static BatchRepositoryItem unresolved(RepositoryIdentifier identifier, boolean completed) {
+        String owner = identifier.getOwner();
+        String repositoryName = identifier.getRepositoryName();
+        if (!completed) {
+            return BatchRepositoryItem.failure(owner, repositoryName, HttpStatus.GATEWAY_TIMEOUT.value(),
+                "UPSTREAM_TIMEOUT", "Timed out resolving " + owner + "/" + repositoryName);
+        }
+        return BatchRepositoryItem.failure(owner, repositoryName, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            "INTERNAL_SERVER_ERROR", "An unexpected error occurred. Please try again later.");
+    }
+
+    private BatchRepositoryItem resolve(RepositoryIdentifier identifier) {
+        String owner = identifier.getOwner();
+        String repositoryName = identifier.getRepositoryName();
+        try {
+            RepositoryResponse response = repositoryService.getRepositoryDetails(owner, repositoryName);
+            return BatchRepositoryItem.success(owner, repositoryName, response);
+        } catch (BizException e) {
+            return BatchRepositoryItem.failure(owner, repositoryName, e.getHttpStatus(), e.getErrorCode(), e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error resolving {}/{}", owner, repositoryName, e);
+            return BatchRepositoryItem.failure(owner, repositoryName, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "INTERNAL_SERVER_ERROR", "An unexpected error occurred. Please try again later.");
+        }
+    }
+
+    private void validate(List<RepositoryIdentifier> identifiers) {
+        if (identifiers == null || identifiers.isEmpty()) {
+            throw new IllegalArgumentException("repositories must not be empty");
+        }
+        if (identifiers.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                "Batch size " + identifiers.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+        for (RepositoryIdentifier identifier : identifiers) {
+            if (identifier == null || isBlank(identifier.getOwner()) || isBlank(identifier.getRepositoryName())) {
+                throw new IllegalArgumentException("Each repository requires owner and repositoryName");
+            }
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.xqiii.cache.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.dto.RepositoryResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BiConsumer;
+
+/**
+ * In-process L1 cache in front of the repositories table
+ *
+ * Backed by Caffeine, whose W-TinyLFU admission policy keeps the frequently
+ * requested repositories resident while one-off lookups are evicted first.
+ * The cache is bounded either by entry count or, when
+ * {@code github.cache.l1.max-weight-bytes} is set, by the estimated heap
+ * footprint of the cached responses. Entries are keyed by the canonical
+ * {@link RepositoryKey}, so differently cased requests share one entry.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class RepositoryL1Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryL1Cache.class);
+
+    /**
+     * Rough per-entry overhead (object headers, references, Instant, LocalDateTime, Integer)
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final Cache<RepositoryKey, CachedRepository> cache;
+
+    public RepositoryL1Cache(@Value("${github.cache.l1.max-entries:10000}") long maxEntries,
+                             @Value("${github.cache.l1.max-weight-bytes:0}") long maxWeightBytes) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (maxWeightBytes > 0) {
+            builder.maximumWeight(maxWeightBytes)
+                .weigher((RepositoryKey key, CachedRepository value) -> estimateBytes(key, value));
+            logger.info("L1 cache bounded by weight: {} bytes", maxWeightBytes);
+        } else {
+            builder.maximumSize(maxEntries);
+            logger.info("L1 cache bounded by size: {} entries", maxEntries);
+        }
+        this.cache = builder.build();
+    }
+
+    public CachedRepository get(RepositoryKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    public CachedRepository get(String owner, String repositoryName) {
+        return get(RepositoryKey.of(owner, repositoryName));
+    }
+
+    public void put(RepositoryKey key, CachedRepository entry) {
+        cache.put(key, entry);
+    }
+
+    public void put(String owner, String repositoryName, CachedRepository entry) {
+        put(RepositoryKey.of(owner, repositoryName), entry);
+    }
+
+    /**
+     * Add an entry unless one is already cached, keeping whatever a request loaded meanwhile
+     */
+    public void putIfAbsent(RepositoryKey key, CachedRepository entry) {
+        cache.asMap().putIfAbsent(key, entry);
+    }
+
+    public void putIfAbsent(String owner, String repositoryName, CachedRepository entry) {
+        putIfAbsent(RepositoryKey.of(owner, repositoryName), entry);
+    }
+
+    public void invalidate(String owner, String repositoryName) {
+        cache.invalidate(RepositoryKey.of(owner, repositoryName));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Visit every cached entry with its key
+     */
+    public void forEach(BiConsumer<RepositoryKey, CachedRepository> action) {
+        cache.asMap().forEach(action);
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Estimate the retained heap size of an entry, strings counted as UTF-16 except the Latin-1 key
+     */
+    private static int estimateBytes(RepositoryKey key, CachedRepository entry) {
+        RepositoryResponse value = entry.getResponse();
+        long bytes = ENTRY_OVERHEAD_BYTES
+            + 40L + key.value().length()
+            + stringBytes(value.getFullName())
+            + stringBytes(value.getDescription())
+            + stringBytes(value.getCloneUrl());
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.client.UpstreamPriority;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor for background cache refreshes
+ *
+ * At most one refresh per key is queued or running at a time. When the queue
+ * is full the refresh is dropped; the entry stays stale and is retried on the
+ * next request that sees it. Refreshes run at {@link UpstreamPriority#BACKGROUND}
+ * so the rate limiter serves user-facing misses first.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class RepositoryRefreshExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryRefreshExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Set<RepositoryKey> pendingKeys = ConcurrentHashMap.newKeySet();
+
+    public RepositoryRefreshExecutor(@Value("${github.cache.refresh.threads:4}") int threads,
+                                     @Value("${github.cache.refresh.queue-capacity:1000}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "repo-refresh-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Schedule a refresh for the key unless one is already pending
+     *
+     * @return true if the refresh was scheduled by this call
+     */
+    public boolean submit(RepositoryKey key, Runnable refresh) {
+        if (!pendingKeys.add(key)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    UpstreamPriority.runInBackground(refresh);
+                } catch (RuntimeException e) {
+                    logger.warn("Background refresh failed for {}: {}", key, e.getMessage());
+                } finally {
+                    pendingKeys.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingKeys.remove(key);
+            logger.warn("Refresh queue full, skipping background refresh for {}", key);
+            return false;
+        }
+    }
+
+    public int pendingCount() {
+        return pendingKeys.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
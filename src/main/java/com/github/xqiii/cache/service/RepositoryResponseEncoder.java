@@ -0,0 +1,78 @@
+package com.github.xqiii.cache.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.xqiii.cache.dto.CachedRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes cache entries once and keeps the bytes on the entry
+ *
+ * A new {@link CachedRepository} is created whenever the record is loaded or
+ * refreshed, so the JSON (and gzip) bytes are built once per refresh and every
+ * hit in between writes them as is, without Jackson.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+public class RepositoryResponseEncoder {
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+
+    public RepositoryResponseEncoder(ObjectMapper objectMapper,
+                                     @Value("${github.cache.response.gzip:false}") boolean gzipEnabled) {
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    /**
+     * UTF-8 JSON of the entry's response
+     */
+    public byte[] json(CachedRepository entry) {
+        byte[] json = entry.getJson();
+        if (json == null) {
+            // Racing hits may both serialize; the results are identical
+            try {
+                json = objectMapper.writeValueAsBytes(entry.getResponse());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize repository response", e);
+            }
+            entry.setJson(json);
+        }
+        return json;
+    }
+
+    /**
+     * Gzip-compressed JSON of the entry's response
+     */
+    public byte[] gzipJson(CachedRepository entry) {
+        byte[] gzipJson = entry.getGzipJson();
+        if (gzipJson == null) {
+            gzipJson = gzip(json(entry));
+            entry.setGzipJson(gzipJson);
+        }
+        return gzipJson;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,20 +1,50 @@
 package com.github.xqiii.cache.service;
 
+import com.github.xqiii.cache.client.PeerCacheClient;
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker;
+import com.github.xqiii.cache.dto.CachedRepository;
 import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.PeerRepositoryEntry;
+import com.github.xqiii.cache.dto.RepositoryIdentifier;
+import com.github.xqiii.cache.dto.RepositoryKey;
 import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.dto.RepositorySnapshot;
+import com.github.xqiii.cache.entity.RepositoryAliasEntity;
 import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.exception.BizException;
+import com.github.xqiii.cache.repository.RepositoryAliasRepository;
 import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.CacheFreshnessPolicy.Freshness;
+import com.github.xqiii.cache.service.CacheMetrics.LookupResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 /**
  * Repository service
- * 
+ *
+ * Every tier is keyed by the canonical {@link RepositoryKey}. When GitHub
+ * answers a request with a repository of another name (a rename or transfer
+ * redirect), the row is stored under the new name and the requested one is
+ * recorded as an alias of it.
+ *
+ * In cluster mode a node that does not own a key asks the owner node before
+ * going to GitHub, so each repository is fetched once per cluster.
+ *
  * @author xiuqiii
  * @date 2025-11-29
  */
@@ -22,34 +52,453 @@ import java.util.Optional;
 public class RepositoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(RepositoryService.class);
-    
+
     @Autowired
     private RepositoryRepository repositoryRepository;
-    
+
+    @Autowired
+    private RepositoryAliasRepository aliasRepository;
+
     @Autowired
     private GithubApiService githubApiService;
 
-    @Transactional
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @Autowired
+    private CacheFreshnessPolicy freshnessPolicy;
+
+    @Autowired
+    private RepositoryRefreshExecutor refreshExecutor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    @Autowired
+    private NegativeCache negativeCache;
+
+    @Autowired
+    private UpstreamCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    /**
+     * Present when {@code github.cache.write-behind.enabled=true}: rows are then written in the background
+     */
+    @Autowired(required = false)
+    private RepositoryWriteBehind writeBehind;
+
+    /**
+     * Present when {@code github.cache.cluster.enabled=true}: misses are then first asked of the key's owner node
+     */
+    @Autowired(required = false)
+    private ClusterMembership clusterMembership;
+
+    @Autowired(required = false)
+    private PeerCacheClient peerCacheClient;
+
+    /**
+     * Deduplicates concurrent misses so each key is loaded at most once at a time
+     */
+    private final SingleFlight<RepositoryKey, CachedRepository> missFlight;
+
+    public RepositoryService(@Value("${github.cache.single-flight.timeout-ms:15000}") long singleFlightTimeoutMs) {
+        this.missFlight = new SingleFlight<>(singleFlightTimeoutMs);
+    }
+
     public RepositoryResponse getRepositoryDetails(String owner, String repositoryName) {
-        // First check cache
-        Optional<RepositoryEntity> cachedEntity = repositoryRepository
-            .findByOwnerAndRepositoryName(owner, repositoryName);
-        
-        if (cachedEntity.isPresent()) {
-            logger.info("Repository found in cache: {}/{}", owner, repositoryName);
-            return cachedEntity.get().toResponse();
-        }
-        
+        return getRepositoryEntry(owner, repositoryName).getResponse();
+    }
+
+    /**
+     * Same lookup as {@link #getRepositoryDetails}, returning the cache entry with its fetch time and ETag
+     */
+    public CachedRepository getRepositoryEntry(String owner, String repositoryName) {
+        return getRepositoryEntry(owner, repositoryName, true);
+    }
+
+    /**
+     * Same lookup as {@link #getRepositoryEntry}, never asking a peer; serves other cluster nodes
+     */
+    public CachedRepository getLocalRepositoryEntry(String owner, String repositoryName) {
+        return getRepositoryEntry(owner, repositoryName, false);
+    }
+
+    private CachedRepository getRepositoryEntry(String owner, String repositoryName, boolean askPeer) {
+        RepositoryKey key = RepositoryKey.of(owner, repositoryName);
+        popularityTracker.record(key.value());
+
+        // First check the in-memory tier, no transaction needed for a hit
+        CachedRepository cached = l1Cache.get(key);
+        if (cached != null) {
+            Freshness freshness = refreshIfStale(key, owner, repositoryName, cached);
+            if (freshness != Freshness.EXPIRED) {
+                logger.debug("Repository found in L1 cache: {}/{}", owner, repositoryName);
+                cacheMetrics.recordLookup(freshness == Freshness.FRESH ? LookupResult.HIT : LookupResult.STALE);
+                return cached;
+            }
+            if (circuitBreaker.isOpen()) {
+                // GitHub is unavailable: an expired entry beats failing the request
+                logger.debug("GitHub circuit open, serving expired entry: {}/{}", owner, repositoryName);
+                cacheMetrics.recordLookup(LookupResult.FALLBACK);
+                return cached;
+            }
+        }
+
+        if (negativeCache.isKnownMissing(key.value())) {
+            logger.debug("Repository known missing: {}", key);
+            cacheMetrics.recordLookup(LookupResult.NEGATIVE);
+            throw new BizException(
+                "REPOSITORY_NOT_FOUND",
+                "Repository not found: " + key,
+                HttpStatus.NOT_FOUND.value()
+            );
+        }
+
+        boolean[] led = new boolean[1];
+        CachedRepository loaded = missFlight.execute(key, () -> {
+            led[0] = true;
+            // A previous leader may have filled the L1 tier after our lookup
+            CachedRepository leaderEntry = l1Cache.get(key);
+            if (leaderEntry != null && freshnessPolicy.evaluate(leaderEntry.getFetchedAt()) != Freshness.EXPIRED) {
+                cacheMetrics.recordLookup(LookupResult.HIT);
+                return leaderEntry;
+            }
+            // No transaction here: the GitHub call must not hold a database connection
+            CachedRepository entry;
+            try {
+                entry = loadRepositoryDetails(key, owner, repositoryName, askPeer);
+            } catch (BizException e) {
+                if ("REPOSITORY_NOT_FOUND".equals(e.getErrorCode())) {
+                    negativeCache.recordMissing(key.value());
+                }
+                throw e;
+            }
+            l1Cache.put(key, entry);
+            return entry;
+        });
+        if (!led[0]) {
+            cacheMetrics.recordLookup(LookupResult.COALESCED);
+        }
+        refreshIfStale(key, owner, repositoryName, loaded);
+        return loaded;
+    }
+
+    /**
+     * Look up repositories in the in-memory tier and then, with a single query, in the database
+     *
+     * @return usable entries keyed by {@link RepositoryKey}; repositories missing from
+     * the map, including former names of renamed ones, must be resolved individually
+     * with {@link #getRepositoryDetails}
+     */
+    public Map<RepositoryKey, CachedRepository> getCachedRepositories(Collection<RepositoryIdentifier> identifiers) {
+        Map<RepositoryKey, CachedRepository> found = new HashMap<>();
+        Map<String, RepositoryKey> pending = new LinkedHashMap<>();
+        for (RepositoryIdentifier identifier : identifiers) {
+            String owner = identifier.getOwner();
+            String repositoryName = identifier.getRepositoryName();
+            RepositoryKey key = RepositoryKey.of(owner, repositoryName);
+            CachedRepository cached = l1Cache.get(key);
+            Freshness freshness = cached != null
+                ? refreshIfStale(key, owner, repositoryName, cached) : Freshness.EXPIRED;
+            if (freshness != Freshness.EXPIRED) {
+                popularityTracker.record(key.value());
+                cacheMetrics.recordLookup(freshness == Freshness.FRESH ? LookupResult.HIT : LookupResult.STALE);
+                found.put(key, cached);
+            } else {
+                pending.put(key.value(), key);
+            }
+        }
+        if (pending.isEmpty()) {
+            return found;
+        }
+
+        List<RepositorySnapshot> snapshots = cacheMetrics.timeDatabase("find_snapshots",
+            () -> repositoryRepository.findSnapshots(pending.keySet()));
+        for (RepositorySnapshot snapshot : snapshots) {
+            RepositoryKey key = snapshot.getKey();
+            CachedRepository entry = snapshot.toCachedRepository();
+            Freshness freshness = refreshIfStale(key, snapshot.getOwner(), snapshot.getRepositoryName(), entry);
+            if (freshness != Freshness.EXPIRED) {
+                popularityTracker.record(key.value());
+                cacheMetrics.recordLookup(freshness == Freshness.FRESH ? LookupResult.DB_HIT : LookupResult.STALE);
+                l1Cache.put(key, entry);
+                found.put(key, entry);
+            }
+        }
+        logger.debug("Batch lookup: {} requested, {} cached", identifiers.size(), found.size());
+        return found;
+    }
+
+    /**
+     * Current cache entry without counting a request or scheduling a refresh
+     *
+     * Reads the L1 tier and then the database, filling the L1 tier from an unexpired row.
+     *
+     * @return the entry, or null when the repository is not cached or has expired
+     */
+    public CachedRepository peekCachedRepository(String owner, String repositoryName) {
+        RepositoryKey key = RepositoryKey.of(owner, repositoryName);
+        CachedRepository cached = l1Cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<RepositorySnapshot> row = cacheMetrics.timeDatabase("find_snapshot",
+            () -> repositoryRepository.findSnapshot(key.value()));
+        if (row.isEmpty() || freshnessPolicy.evaluate(row.get().getFetchedAt()) == Freshness.EXPIRED) {
+            return null;
+        }
+        CachedRepository entry = row.get().toCachedRepository();
+        l1Cache.putIfAbsent(key, entry);
+        return entry;
+    }
+
+    /**
+     * Refresh a cached repository from GitHub and update both tiers
+     */
+    public void refreshRepositoryDetails(String owner, String repositoryName) {
+        logger.debug("Refreshing repository from GitHub API: {}/{}", owner, repositoryName);
+        RepositoryKey key = RepositoryKey.of(owner, repositoryName);
+        // A fresh entry on the owner node saves this node its own GitHub call
+        Optional<CachedRepository> fromPeer = fillFromOwnerPeer(key, owner, repositoryName, Freshness.FRESH);
+        if (fromPeer.isPresent()) {
+            l1Cache.put(key, fromPeer.get());
+            return;
+        }
+        Optional<RepositorySnapshot> existing = findSnapshot(key);
+        CachedRepository entry;
+        if (existing.isPresent()) {
+            entry = revalidateRepositoryDetails(existing.get());
+        } else {
+            GithubApiResponse githubResponse = githubApiService.fetchRepositoryDetails(owner, repositoryName);
+            entry = saveRepositoryDetails(owner, repositoryName, githubResponse);
+        }
+        l1Cache.put(key, entry);
+    }
+
+    /**
+     * Evaluate the entry, scheduling a background refresh when it is stale; anything but EXPIRED can be served
+     */
+    private Freshness refreshIfStale(RepositoryKey key, String owner, String repositoryName, CachedRepository entry) {
+        Freshness freshness = freshnessPolicy.evaluate(entry.getFetchedAt());
+        if (freshness == Freshness.STALE) {
+            refreshExecutor.submit(key, () -> refreshRepositoryDetails(owner, repositoryName));
+        }
+        return freshness;
+    }
+
+    private CachedRepository loadRepositoryDetails(RepositoryKey key, String owner, String repositoryName,
+                                                   boolean askPeer) {
+        // Rows not yet written behind are newer than anything in the database
+        if (writeBehind != null) {
+            CachedRepository pending = writeBehind.getPending(key);
+            if (pending != null && freshnessPolicy.evaluate(pending.getFetchedAt()) != Freshness.EXPIRED) {
+                cacheMetrics.recordLookup(LookupResult.DB_HIT);
+                return pending;
+            }
+        }
+
+        // Then check database cache
+        Optional<RepositorySnapshot> cachedRow = findSnapshot(key);
+
+        if (cachedRow.isPresent()) {
+            RepositorySnapshot snapshot = cachedRow.get();
+            if (freshnessPolicy.evaluate(snapshot.getFetchedAt()) != Freshness.EXPIRED) {
+                logger.debug("Repository found in cache: {}/{}", owner, repositoryName);
+                cacheMetrics.recordLookup(LookupResult.DB_HIT);
+                return snapshot.toCachedRepository();
+            }
+            if (askPeer) {
+                Optional<CachedRepository> fromPeer = fillFromOwnerPeer(key, owner, repositoryName, Freshness.STALE);
+                if (fromPeer.isPresent()) {
+                    cacheMetrics.recordLookup(LookupResult.PEER);
+                    return fromPeer.get();
+                }
+            }
+            logger.debug("Cached repository expired, revalidating with GitHub API: {}/{}", owner, repositoryName);
+            try {
+                CachedRepository revalidated = revalidateRepositoryDetails(snapshot);
+                cacheMetrics.recordLookup(LookupResult.MISS);
+                return revalidated;
+            } catch (BizException e) {
+                if ("REPOSITORY_NOT_FOUND".equals(e.getErrorCode())) {
+                    cacheMetrics.recordLookup(LookupResult.MISS);
+                    throw e;
+                }
+                cacheMetrics.recordLookup(LookupResult.FALLBACK);
+                // Serve stale if error: the expired row is still better than no answer
+                logger.warn("Revalidation failed ({}), serving expired entry: {}/{}", e.getErrorCode(),
+                    owner, repositoryName);
+                return snapshot.toCachedRepository();
+            }
+        }
+
+        if (askPeer) {
+            Optional<CachedRepository> fromPeer = fillFromOwnerPeer(key, owner, repositoryName, Freshness.STALE);
+            if (fromPeer.isPresent()) {
+                cacheMetrics.recordLookup(LookupResult.PEER);
+                return fromPeer.get();
+            }
+        }
+
         // Cache miss, fetch from GitHub API
-        logger.info("Cache miss, fetching from GitHub API: {}/{}", owner, repositoryName);
+        logger.debug("Cache miss, fetching from GitHub API: {}/{}", owner, repositoryName);
+        cacheMetrics.recordLookup(LookupResult.MISS);
         GithubApiResponse githubResponse = githubApiService.fetchRepositoryDetails(owner, repositoryName);
-        
-        // Save to cache
-        RepositoryEntity entity = RepositoryEntity.fromGithubApiResponse(owner, repositoryName, githubResponse);
-        RepositoryEntity savedEntity = repositoryRepository.save(entity);
-        logger.info("Repository details cached: {}/{}", owner, repositoryName);
-        
-        return savedEntity.toResponse();
+        return saveRepositoryDetails(owner, repositoryName, githubResponse);
     }
-}
 
+    /**
+     * Revalidate a cached row with a conditional request, only touching its timestamp on 304
+     */
+    private CachedRepository revalidateRepositoryDetails(RepositorySnapshot snapshot) {
+        String owner = snapshot.getOwner();
+        String repositoryName = snapshot.getRepositoryName();
+        if (!snapshot.hasValidators()) {
+            GithubApiResponse githubResponse = githubApiService.fetchRepositoryDetails(owner, repositoryName);
+            return saveRepositoryDetails(owner, repositoryName, githubResponse);
+        }
+
+        Optional<GithubApiResponse> modified = githubApiService.fetchRepositoryDetailsIfModified(
+            owner, repositoryName, snapshot.getEtag(), snapshot.getLastModified());
+        if (modified.isPresent()) {
+            return saveRepositoryDetails(owner, repositoryName, modified.get());
+        }
+
+        RepositorySnapshot confirmed = snapshot.withFetchedAt(Instant.now());
+        if (writeBehind != null) {
+            writeBehind.enqueue(confirmed);
+        } else {
+            cacheMetrics.timeDatabase("touch", () -> transactionTemplate.execute(status ->
+                repositoryRepository.touchFetchedAt(snapshot.getKey().value(), confirmed.getFetchedAt())));
+        }
+        logger.debug("Repository details revalidated: {}/{}", owner, repositoryName);
+        return confirmed.toCachedRepository();
+    }
+
+    /**
+     * Row stored under the key, or under the key it is recorded as an alias of
+     */
+    private Optional<RepositorySnapshot> findSnapshot(RepositoryKey key) {
+        Optional<RepositorySnapshot> row = cacheMetrics.timeDatabase("find_snapshot",
+            () -> repositoryRepository.findSnapshot(key.value()));
+        if (row.isPresent()) {
+            return row;
+        }
+        // Only reached on a miss, which is about to cost an upstream call anyway
+        return cacheMetrics.timeDatabase("find_alias", () -> aliasRepository.findTargetKey(key.value())
+            .flatMap(target -> repositoryRepository.findSnapshot(target)));
+    }
+
+    private CachedRepository saveRepositoryDetails(String owner, String repositoryName,
+                                                   GithubApiResponse githubResponse) {
+        return saveRow(owner, repositoryName, githubResponse.getFullName(),
+            (rowOwner, rowRepositoryName) -> RepositoryEntity.fromGithubApiResponse(rowOwner, rowRepositoryName,
+                githubResponse),
+            existing -> existing.updateFromGithubApiResponse(githubResponse));
+    }
+
+    /**
+     * Ask the key's owner node in cluster mode, storing its entry here when it is no older than {@code oldest}
+     *
+     * @return empty when cluster mode is off, this node owns the key, the peer could not answer, or its entry
+     * is too old; the caller then goes to GitHub itself
+     */
+    private Optional<CachedRepository> fillFromOwnerPeer(RepositoryKey key, String owner, String repositoryName,
+                                                        Freshness oldest) {
+        if (clusterMembership == null) {
+            return Optional.empty();
+        }
+        Optional<String> peer = clusterMembership.ownerPeer(key);
+        if (peer.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<PeerRepositoryEntry> entry = peerCacheClient.fetch(peer.get(), owner, repositoryName);
+        if (entry.isEmpty() || freshnessPolicy.evaluate(entry.get().getFetchedAt()).compareTo(oldest) > 0) {
+            return Optional.empty();
+        }
+        logger.debug("Repository filled from owner node {}: {}/{}", peer.get(), owner, repositoryName);
+        PeerRepositoryEntry peerEntry = entry.get();
+        return Optional.of(saveRow(owner, repositoryName, peerEntry.getFullName(),
+            (rowOwner, rowRepositoryName) -> RepositoryEntity.fromPeerEntry(rowOwner, rowRepositoryName, peerEntry),
+            existing -> existing.updateFromPeerEntry(peerEntry)));
+    }
+
+    /**
+     * Store fetched details under the canonical key of {@code fullName}, recording a rename as an alias
+     */
+    private CachedRepository saveRow(String owner, String repositoryName, String fullName,
+                                     BiFunction<String, String, RepositoryEntity> create,
+                                     Consumer<RepositoryEntity> update) {
+        RepositoryKey requested = RepositoryKey.of(owner, repositoryName);
+        RepositoryKey canonical = canonicalKey(requested, fullName);
+        boolean renamed = !canonical.equals(requested);
+        if (renamed) {
+            // Store the row under the name GitHub redirected to, keeping its case
+            int separator = fullName.indexOf('/');
+            owner = fullName.substring(0, separator);
+            repositoryName = fullName.substring(separator + 1);
+            logger.debug("Repository {} was renamed to {}", requested, canonical);
+        }
+        String rowOwner = owner;
+        String rowRepositoryName = repositoryName;
+
+        if (writeBehind != null) {
+            RepositoryEntity entity = create.apply(rowOwner, rowRepositoryName);
+            writeBehind.enqueue(entity.toSnapshot());
+            if (renamed) {
+                // The alias is written at once: an old-name lookup must never miss both the row and the alias
+                writeBehind.discard(requested);
+                cacheMetrics.timeDatabase("save", () -> transactionTemplate.execute(status ->
+                    recordAlias(requested, canonical)));
+            }
+            logger.debug("Repository details queued for write-behind: {}", canonical);
+            return entity.toCachedRepository();
+        }
+
+        // Only the write is transactional
+        RepositoryEntity savedEntity = cacheMetrics.timeDatabase("save", () -> transactionTemplate.execute(status -> {
+            RepositoryEntity entity = repositoryRepository
+                .findByCacheKey(canonical.value())
+                .map(existing -> {
+                    update.accept(existing);
+                    return existing;
+                })
+                .orElseGet(() -> create.apply(rowOwner, rowRepositoryName));
+            if (renamed) {
+                recordAlias(requested, canonical);
+            }
+            return repositoryRepository.save(entity);
+        }));
+        logger.debug("Repository details cached: {}", canonical);
+
+        return savedEntity.toCachedRepository();
+    }
+
+    /**
+     * Key of the full name GitHub reported; differs from the requested key when the request was redirected
+     */
+    private static RepositoryKey canonicalKey(RepositoryKey requested, String fullName) {
+        int separator = fullName == null ? -1 : fullName.indexOf('/');
+        if (separator <= 0 || separator == fullName.length() - 1) {
+            return requested;
+        }
+        return RepositoryKey.parse(fullName);
+    }
+
+    /**
+     * Point the former name at the canonical row, dropping the row cached under the former name
+     */
+    private RepositoryAliasEntity recordAlias(RepositoryKey alias, RepositoryKey target) {
+        repositoryRepository.deleteByCacheKey(alias.value());
+        RepositoryAliasEntity entity = aliasRepository.findByAliasKey(alias.value())
+            .orElseGet(() -> new RepositoryAliasEntity(alias.value(), target.value()));
+        entity.setCacheKey(target.value());
+        entity.setRecordedAt(Instant.now());
+        return aliasRepository.save(entity);
+    }
+}
@@ -0,0 +1,205 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.dto.RepositorySnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind persistence of fetched repositories
+ *
+ * Rows are queued per repository (a newer write replaces a pending one) and a
+ * background writer flushes them as JDBC batch upserts every
+ * {@code github.cache.write-behind.flush-interval-ms}, or as soon as
+ * {@code github.cache.write-behind.batch-size} rows are pending. When
+ * {@code github.cache.write-behind.queue-capacity} rows are pending the caller
+ * flushes inline, so the queue stays bounded. Flushes never overlap, so two
+ * versions of a row are written in the order they were queued. The queue is
+ * drained on shutdown. Enabled with {@code github.cache.write-behind.enabled=true}.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@Component
+@ConditionalOnProperty(name = "github.cache.write-behind.enabled", havingValue = "true")
+public class RepositoryWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryWriteBehind.class);
+
+    /**
+     * H2 upsert keyed by the cache_key unique constraint; the id of an existing row is kept
+     */
+    private static final String MERGE_SQL = "MERGE INTO repositories "
+        + "(cache_key, owner, repository_name, full_name, description, clone_url, stars, created_at, fetched_at, "
+        + "etag, last_modified) KEY (cache_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final Map<RepositoryKey, RepositorySnapshot> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Rows taken from the queue whose batch has not been written yet
+     */
+    private final Map<RepositoryKey, RepositorySnapshot> flushing = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    /**
+     * Held for a whole flush: a caller flushing a full queue waits for the writer thread,
+     * otherwise its newer row could be written before an older one still in the writer's batch
+     */
+    private final Object flushLock = new Object();
+
+    public RepositoryWriteBehind(JdbcTemplate jdbcTemplate,
+                                 @Value("${github.cache.write-behind.flush-interval-ms:100}") long flushIntervalMillis,
+                                 @Value("${github.cache.write-behind.batch-size:100}") int batchSize,
+                                 @Value("${github.cache.write-behind.queue-capacity:10000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "repo-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+            TimeUnit.MILLISECONDS);
+        logger.info("Write-behind persistence enabled (every {} ms or {} rows)", flushIntervalMillis, batchSize);
+    }
+
+    /**
+     * Queue a row to be written
+     */
+    public void enqueue(RepositorySnapshot row) {
+        pending.put(row.getKey(), row);
+
+        int size = pending.size();
+        if (size >= queueCapacity) {
+            logger.warn("Write-behind queue full ({} rows), flushing on the caller thread", size);
+            // A failed write keeps the rows queued; the caller's own lookup has already succeeded
+            flushQuietly();
+        } else if (size >= batchSize && flushRequested.compareAndSet(false, true)) {
+            writer.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Row still waiting to be written, so reads do not miss what has not reached the database yet
+     */
+    public CachedRepository getPending(RepositoryKey key) {
+        RepositorySnapshot row = pending.get(key);
+        if (row == null) {
+            row = flushing.get(key);
+        }
+        return row != null ? row.toCachedRepository() : null;
+    }
+
+    /**
+     * Drop a queued row that must not be written, such as the former name of a renamed repository
+     */
+    public void discard(RepositoryKey key) {
+        pending.remove(key);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Write every pending row, in batches of {@code batch-size}
+     *
+     * @return number of rows written
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            return writeBatches();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int written = flush();
+        logger.info("Write-behind drained {} rows on shutdown", written);
+    }
+
+    private int writeBatches() {
+        int written = 0;
+        List<Map.Entry<RepositoryKey, RepositorySnapshot>> batch;
+        while (!(batch = takeBatch()).isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(MERGE_SQL, batch, batch.size(), (statement, entry) -> {
+                    RepositorySnapshot row = entry.getValue();
+                    statement.setString(1, entry.getKey().value());
+                    statement.setString(2, row.getOwner());
+                    statement.setString(3, row.getRepositoryName());
+                    statement.setString(4, row.getFullName());
+                    statement.setString(5, row.getDescription());
+                    statement.setString(6, row.getCloneUrl());
+                    statement.setInt(7, row.getStars());
+                    statement.setObject(8, row.getCreatedAt());
+                    statement.setTimestamp(9, Timestamp.from(row.getFetchedAt()));
+                    statement.setString(10, row.getEtag());
+                    statement.setString(11, row.getLastModified());
+                });
+            } catch (RuntimeException e) {
+                // Put the rows back unless a newer write for the same repository arrived meanwhile
+                batch.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+                throw e;
+            } finally {
+                batch.forEach(entry -> flushing.remove(entry.getKey(), entry.getValue()));
+            }
+            written += batch.size();
+        }
+        if (written > 0) {
+            logger.debug("Write-behind flushed {} rows", written);
+        }
+        return written;
+    }
+
+    private List<Map.Entry<RepositoryKey, RepositorySnapshot>> takeBatch() {
+        List<Map.Entry<RepositoryKey, RepositorySnapshot>> batch = new ArrayList<>(batchSize);
+        Iterator<Map.Entry<RepositoryKey, RepositorySnapshot>> iterator = pending.entrySet().iterator();
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            Map.Entry<RepositoryKey, RepositorySnapshot> entry = iterator.next();
+            // Only take the row if it was not replaced since we looked at it
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                flushing.put(entry.getKey(), entry.getValue());
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        return batch;
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Write-behind flush failed, {} rows kept for retry: {}", pending.size(), e.getMessage(), e);
+        }
+    }
+}
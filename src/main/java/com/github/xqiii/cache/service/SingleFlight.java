@@ -0,0 +1,95 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.exception.BizException;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Per-key in-flight call deduplication
+ *
+ * The first caller for a key becomes the leader and runs the loader on its own
+ * thread; concurrent callers for the same key wait on the leader's result
+ * instead of repeating the work. Waiters give up after the configured timeout.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    public SingleFlight(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Run the loader for the key, or join the call already in flight for it
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(key, existing);
+        }
+
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Number of keys with a call currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new BizException(
+                "INTERNAL_SERVER_ERROR",
+                "In-flight request failed for " + key,
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                cause
+            );
+        } catch (TimeoutException e) {
+            throw new BizException(
+                "UPSTREAM_TIMEOUT",
+                "Timed out waiting for in-flight request for " + key,
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                e
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BizException(
+                "INTERNAL_SERVER_ERROR",
+                "Interrupted while waiting for in-flight request for " + key,
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e
+            );
+        }
+    }
+}
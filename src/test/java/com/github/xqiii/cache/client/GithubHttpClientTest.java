@@ -0,0 +1,93 @@
+package com.github.xqiii.cache.client;
+
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GitHub HTTP client backend test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class GithubHttpClientTest {
+
+    private GithubStubServer stub;
+
+    @BeforeEach
+    void setUp() {
+        stub = GithubStubServer.start();
+        stub.setHandler(request -> Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 1))
+            .withDelay(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void testJdkBackend_ReusesKeepAliveConnection() throws Exception {
+        // Given
+        GithubHttpClient client = new GithubHttpClient("jdk", 1000, 2000, 10, Duration.ofSeconds(30));
+        RestTemplate restTemplate = client.newRestTemplate();
+
+        // When - Sequential requests
+        for (int i = 0; i < 10; i++) {
+            restTemplate.getForObject(stub.baseUrl() + "/repos/octocat/hello-world", String.class);
+        }
+
+        // Then - All of them travel over one warm connection, without touching JVM-wide pool settings
+        assertEquals(10, client.getRequestCount());
+        assertEquals(0, client.getInFlightRequests());
+        assertEquals(1, stub.connectionCount());
+        assertEquals(-1, client.getLeasedConnections());
+        assertNull(System.getProperty("jdk.httpclient.connectionPoolSize"));
+        client.close();
+    }
+
+    @Test
+    void testApacheBackend_BurstBoundedByPoolSize() throws Exception {
+        // Given
+        int maxConnections = 4;
+        GithubHttpClient client = new GithubHttpClient("apache", 1000, 2000, maxConnections, Duration.ofSeconds(30));
+        RestTemplate restTemplate = client.newRestTemplate();
+
+        // When - A concurrent burst much larger than the pool
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<String>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(() ->
+                    restTemplate.getForObject(stub.baseUrl() + "/repos/octocat/hello-world", String.class)));
+            }
+            for (Future<String> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then - The burst is served by at most maxConnections sockets, returned to the pool afterwards
+        assertEquals(64, client.getRequestCount());
+        assertTrue(stub.connectionCount() <= maxConnections);
+        assertEquals(0, client.getLeasedConnections());
+        assertTrue(client.getAvailableConnections() > 0);
+        client.close();
+    }
+}
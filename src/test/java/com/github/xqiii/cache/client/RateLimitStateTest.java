@@ -0,0 +1,105 @@
+package com.github.xqiii.cache.client;
+
+import com.github.xqiii.cache.client.RateLimitState.Reservation;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rate-limit budget and pacing test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class RateLimitStateTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final double RESERVE = 0.2;
+
+    @Test
+    void testUnknownBudget_Permitted() {
+        RateLimitState state = new RateLimitState();
+        assertTrue(state.reserve(UpstreamPriority.BACKGROUND, NOW, RESERVE, 0).permitted());
+    }
+
+    @Test
+    void testBackground_StopsAtReserveForegroundContinues() {
+        // Given - 20 of 100 left, which is exactly the 20% reserve
+        RateLimitState state = stateWith(100, 20, 60_000);
+
+        // Then
+        assertFalse(state.reserve(UpstreamPriority.BACKGROUND, NOW, RESERVE, 0).permitted());
+        Reservation foreground = state.reserve(UpstreamPriority.FOREGROUND, NOW, RESERVE, 1000);
+        assertTrue(foreground.permitted());
+        assertEquals(0, foreground.waitMillis());
+        assertEquals(19, state.getRemaining());
+    }
+
+    @Test
+    void testBackground_SpreadUntilReset() {
+        // Given - 40 above a 20-call reserve, 40 seconds to the reset: one background call per second
+        RateLimitState state = stateWith(100, 60, 40_000);
+
+        // Then
+        assertTrue(state.reserve(UpstreamPriority.BACKGROUND, NOW, RESERVE, 0).permitted());
+        Reservation tooSoon = state.reserve(UpstreamPriority.BACKGROUND, NOW + 500, RESERVE, 0);
+        assertFalse(tooSoon.permitted());
+        assertEquals(500, tooSoon.retryAfterMillis());
+        assertTrue(state.reserve(UpstreamPriority.BACKGROUND, NOW + 1000, RESERVE, 0).permitted());
+    }
+
+    @Test
+    void testForeground_PacedInsideReserve() {
+        // Given - 10 calls left, 10 seconds to the reset: one call per second
+        RateLimitState state = stateWith(100, 10, 10_000);
+
+        // Then - The first call goes now, the next waits for its slot or is rejected beyond the max wait
+        assertEquals(0, state.reserve(UpstreamPriority.FOREGROUND, NOW, RESERVE, 2000).waitMillis());
+        Reservation paced = state.reserve(UpstreamPriority.FOREGROUND, NOW, RESERVE, 2000);
+        assertTrue(paced.permitted());
+        assertEquals(1000, paced.waitMillis());
+        assertFalse(state.reserve(UpstreamPriority.FOREGROUND, NOW, RESERVE, 500).permitted());
+    }
+
+    @Test
+    void testExhausted_RejectedUntilResetThenReplenished() {
+        // Given
+        RateLimitState state = stateWith(60, 0, 30_000);
+
+        // Then
+        assertTrue(state.isExhausted(NOW));
+        Reservation rejected = state.reserve(UpstreamPriority.FOREGROUND, NOW, RESERVE, 1000);
+        assertFalse(rejected.permitted());
+        assertEquals(30_000, rejected.retryAfterMillis());
+        assertTrue(state.reserve(UpstreamPriority.FOREGROUND, NOW + 30_000, RESERVE, 1000).permitted());
+        assertEquals(59, state.getRemaining());
+    }
+
+    @Test
+    void testRetryAfter_BlocksAllCalls() {
+        // Given
+        RateLimitState state = stateWith(5000, 4000, 3_600_000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "30");
+        state.update(headers, NOW);
+
+        // Then
+        assertTrue(state.isExhausted(NOW));
+        assertEquals(30_000, state.retryAfterMillis(NOW));
+        assertFalse(state.reserve(UpstreamPriority.FOREGROUND, NOW + 10_000, RESERVE, 1000).permitted());
+        assertTrue(state.reserve(UpstreamPriority.FOREGROUND, NOW + 30_000, RESERVE, 1000).permitted());
+    }
+
+    private static RateLimitState stateWith(long limit, long remaining, long millisToReset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", String.valueOf(limit));
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf((NOW + millisToReset) / 1000));
+        RateLimitState state = new RateLimitState();
+        state.update(headers, NOW);
+        return state;
+    }
+}
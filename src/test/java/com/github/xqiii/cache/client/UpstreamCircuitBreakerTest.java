@@ -0,0 +1,127 @@
+package com.github.xqiii.cache.client;
+
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker.State;
+import com.github.xqiii.cache.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Upstream circuit breaker state machine test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class UpstreamCircuitBreakerTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void testOpensOnFailureRateAndFailsFast() {
+        // Given - Window of 4 calls, opens at 50% failures
+        UpstreamCircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1000);
+        succeed(breaker);
+        succeed(breaker);
+        fail(breaker);
+
+        // When
+        fail(breaker);
+
+        // Then - Open, and further calls are not attempted
+        assertEquals(State.OPEN, breaker.getState());
+        int attempted = calls.get();
+        UpstreamUnavailableException exception = assertThrows(UpstreamUnavailableException.class,
+            () -> breaker.execute(calls::incrementAndGet));
+        assertEquals("UPSTREAM_UNAVAILABLE", exception.getErrorCode());
+        assertEquals(60, exception.getRetryAfterSeconds());
+        assertEquals(attempted, calls.get());
+    }
+
+    @Test
+    void testClientErrorsDoNotOpen() {
+        UpstreamCircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1000);
+
+        // When - GitHub answers 404 every time
+        for (int i = 0; i < 10; i++) {
+            assertThrows(HttpClientErrorException.class, () -> breaker.execute(() -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            }));
+        }
+
+        // Then
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testOpensOnSlowCalls() {
+        // Given - Calls of 20 ms or more count as slow
+        UpstreamCircuitBreaker breaker = breaker(Duration.ofMinutes(1), 20);
+
+        // When - Four slow but successful calls
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(() -> {
+                sleep(30);
+                return null;
+            });
+        }
+
+        // Then
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenProbeClosesOrReopens() throws Exception {
+        // Given - An open circuit with a short open duration
+        UpstreamCircuitBreaker breaker = breaker(Duration.ofMillis(50), 1000);
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+        Thread.sleep(80);
+        assertEquals(State.HALF_OPEN, breaker.getState());
+
+        // When - The probe fails
+        fail(breaker);
+
+        // Then - Open again
+        assertEquals(State.OPEN, breaker.getState());
+
+        // When - The next probe succeeds
+        Thread.sleep(80);
+        succeed(breaker);
+
+        // Then - Closed, with a fresh window
+        assertEquals(State.CLOSED, breaker.getState());
+        fail(breaker);
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    private static UpstreamCircuitBreaker breaker(Duration openDuration, long slowCallMillis) {
+        return new UpstreamCircuitBreaker(true, 4, 4, 0.5, slowCallMillis, 0.8, openDuration, 1);
+    }
+
+    private void succeed(UpstreamCircuitBreaker breaker) {
+        breaker.execute(calls::incrementAndGet);
+    }
+
+    private void fail(UpstreamCircuitBreaker breaker) {
+        assertThrows(ResourceAccessException.class, () -> breaker.execute(() -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("Read timed out");
+        }));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.xqiii.cache.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hedged call and hedge budget test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class UpstreamHedgerTest {
+
+    private final UpstreamLatencyTracker latencyTracker = new UpstreamLatencyTracker(1000, 20);
+    private final UpstreamHedger hedger = new UpstreamHedger(latencyTracker, true, 0.95, 10, 0.05);
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    @Test
+    void testNoHedgeUntilLatencyKnown() {
+        // Given - No latency recorded yet
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When - A slow call
+        hedger.execute(() -> sleep(50, attempts));
+
+        // Then - Sent once, and its latency is now tracked
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedger.getHedgeCount());
+        assertEquals(1, latencyTracker.getSampleCount());
+    }
+
+    @Test
+    void testSlowPrimaryCancelledWhenHedgeWins() throws Exception {
+        // Given - Recent calls took 1 ms, and enough calls to earn a hedge
+        warm();
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When - The first attempt stalls, the second answers at once
+        long start = System.nanoTime();
+        String result = hedger.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    primaryCancelled.countDown();
+                    Thread.currentThread().interrupt();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertEquals("hedge", result);
+        assertTrue(elapsedMillis < 1000, "Hedged call took " + elapsedMillis + " ms");
+        assertTrue(primaryCancelled.await(1, TimeUnit.SECONDS), "Losing attempt was not cancelled");
+    }
+
+    @Test
+    void testCancelledPrimaryLatencyRecorded() throws Exception {
+        // Given
+        warm();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When - The first attempt stalls until the hedge wins and it is cancelled
+        hedger.execute(() -> attempts.incrementAndGet() == 1 ? sleep(5000, new AtomicInteger()) : "hedge");
+
+        // Then - Both attempts are recorded, the cancelled one with at least the hedge delay
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (latencyTracker.getSampleCount() < 22 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(22, latencyTracker.getSampleCount());
+        assertTrue(latencyTracker.percentile(1.0) >= 10, "Slowest recorded: " + latencyTracker.percentile(1.0));
+    }
+
+    @Test
+    void testHedgesStayWithinBudget() {
+        // Given
+        warm();
+        AtomicInteger attempts = new AtomicInteger();
+        long callsBefore = hedger.getCallCount();
+
+        // When - Every call is slower than the hedge delay
+        for (int i = 0; i < 40; i++) {
+            hedger.execute(() -> sleep(30, attempts));
+        }
+
+        // Then - At most 5% of all calls so far were hedged
+        long calls = hedger.getCallCount();
+        assertEquals(callsBefore + 40, calls);
+        assertTrue(hedger.getHedgeCount() >= 1);
+        assertTrue(hedger.getHedgeCount() <= calls * 0.05, "Too many hedges: " + hedger.getHedgeCount());
+        // A hedge cancelled before it started never reaches the supplier
+        assertTrue(attempts.get() >= 40 && attempts.get() <= 40 + hedger.getHedgeCount());
+    }
+
+    @Test
+    void testNoHedgeWithoutPermit() {
+        // Given
+        warm();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When - A slow call whose hedge is refused its upstream budget
+        String result = hedger.execute(() -> sleep(100, attempts), () -> false);
+
+        // Then - The first attempt answered and the hedge token was kept
+        assertEquals("slow", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedger.getHedgeCount());
+        hedger.execute(() -> sleep(100, attempts), () -> true);
+        assertEquals(1, hedger.getHedgeCount());
+    }
+
+    /**
+     * Record 20 fast calls, earning one hedge token
+     */
+    private void warm() {
+        for (int i = 0; i < 20; i++) {
+            hedger.execute(() -> "fast");
+        }
+    }
+
+    private static String sleep(long millis, AtomicInteger attempts) {
+        attempts.incrementAndGet();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slow";
+    }
+}
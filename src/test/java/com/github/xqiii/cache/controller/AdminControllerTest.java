@@ -0,0 +1,71 @@
+package com.github.xqiii.cache.controller;
+
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.exception.GlobalExceptionHandler;
+import com.github.xqiii.cache.service.PopularityTracker;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Admin controller test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@WebMvcTest(controllers = AdminController.class)
+@Import({GlobalExceptionHandler.class, PopularityTracker.class, RepositoryL1Cache.class})
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @Test
+    void testHotRepositories_MostPopularFirst() throws Exception {
+        // Given - Two popular repositories, only one of them cached
+        for (int i = 0; i < 3; i++) {
+            popularityTracker.record("octocat/hello-world");
+        }
+        popularityTracker.record("xqiii/flow-canvas");
+        l1Cache.put("octocat", "hello-world", new CachedRepository(new RepositoryResponse(
+            "octocat/hello-world", "My first repository", "https://github.com/octocat/hello-world.git",
+            1, LocalDateTime.of(2020, 1, 1, 0, 0)), Instant.now()));
+
+        // When & Then
+        mockMvc.perform(get("/admin/cache/hot").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].owner").value("octocat"))
+                .andExpect(jsonPath("$[0].repositoryName").value("hello-world"))
+                .andExpect(jsonPath("$[0].estimatedRequests").value(3))
+                .andExpect(jsonPath("$[0].cached").value(true))
+                .andExpect(jsonPath("$[0].fetchedAt").exists())
+                .andExpect(jsonPath("$[1].repositoryName").value("flow-canvas"))
+                .andExpect(jsonPath("$[1].cached").value(false))
+                .andExpect(jsonPath("$[1].fetchedAt").doesNotExist());
+    }
+
+    @Test
+    void testHotRepositories_InvalidLimit() throws Exception {
+        mockMvc.perform(get("/admin/cache/hot").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_ARGUMENT"));
+    }
+}
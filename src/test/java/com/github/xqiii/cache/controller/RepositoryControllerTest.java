@@ -1,8 +1,15 @@
 package com.github.xqiii.cache.controller;
 
+import com.github.xqiii.cache.dto.BatchRepositoryItem;
+import com.github.xqiii.cache.dto.BatchRepositoryResponse;
+import com.github.xqiii.cache.dto.CachedRepository;
 import com.github.xqiii.cache.dto.RepositoryResponse;
 import com.github.xqiii.cache.exception.BizException;
 import com.github.xqiii.cache.exception.GlobalExceptionHandler;
+import com.github.xqiii.cache.exception.RateLimitedException;
+import com.github.xqiii.cache.service.CacheFreshnessPolicy;
+import com.github.xqiii.cache.service.RepositoryBatchService;
+import com.github.xqiii.cache.service.RepositoryResponseEncoder;
 import com.github.xqiii.cache.service.RepositoryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,11 +20,23 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,8 +46,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * @author xiuqiii
  * @date 2025-11-29
  */
-@WebMvcTest(RepositoryController.class)
-@Import(GlobalExceptionHandler.class)
+@WebMvcTest(controllers = RepositoryController.class, properties = "github.cache.response.gzip=true")
+@Import({GlobalExceptionHandler.class, CacheFreshnessPolicy.class, RepositoryResponseEncoder.class})
 class RepositoryControllerTest {
 
     @Autowired
@@ -37,6 +56,9 @@ class RepositoryControllerTest {
     @MockBean
     private RepositoryService repositoryService;
 
+    @MockBean
+    private RepositoryBatchService repositoryBatchService;
+
     @Test
     void testGetRepository_Success() throws Exception {
         // Given
@@ -50,8 +72,8 @@ class RepositoryControllerTest {
             LocalDateTime.of(2020, 1, 1, 0, 0)
         );
 
-        when(repositoryService.getRepositoryDetails(owner, repositoryName))
-            .thenReturn(response);
+        when(repositoryService.getRepositoryEntry(owner, repositoryName))
+            .thenReturn(new CachedRepository(response, Instant.now()));
 
         // When & Then
         mockMvc.perform(get("/repositories/{owner}/{repositoryName}", owner, repositoryName)
@@ -65,13 +87,96 @@ class RepositoryControllerTest {
                 .andExpect(jsonPath("$.createdAt").exists());
     }
 
+    @Test
+    void testGetRepository_EtagAndCacheControl() throws Exception {
+        // Given - An entry fetched 10 minutes ago with a 1 hour fresh TTL
+        CachedRepository entry = new CachedRepository(helloWorld(), Instant.now().minus(Duration.ofMinutes(10)));
+        when(repositoryService.getRepositoryEntry("octocat", "hello-world")).thenReturn(entry);
+
+        // When & Then
+        mockMvc.perform(get("/repositories/{owner}/{repositoryName}", "octocat", "hello-world"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", entry.getEtag()))
+                .andExpect(header().string("Cache-Control",
+                    matchesPattern("max-age=(299\\d|3000), public")));
+    }
+
+    @Test
+    void testGetRepository_ExpiredEntry_StaleWarning() throws Exception {
+        // Given - An entry served past expiry because GitHub could not be reached
+        CachedRepository entry = new CachedRepository(helloWorld(), Instant.now().minus(Duration.ofDays(2)));
+        when(repositoryService.getRepositoryEntry("octocat", "hello-world")).thenReturn(entry);
+
+        // When & Then
+        mockMvc.perform(get("/repositories/{owner}/{repositoryName}", "octocat", "hello-world"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(header().string("Cache-Control", "max-age=0, public"))
+                .andExpect(jsonPath("$.fullName").value("octocat/hello-world"));
+    }
+
+    @Test
+    void testGetRepository_IfNoneMatch_NotModified() throws Exception {
+        // Given
+        CachedRepository entry = new CachedRepository(helloWorld(), Instant.now());
+        when(repositoryService.getRepositoryEntry("octocat", "hello-world")).thenReturn(entry);
+
+        // When & Then - No body, validators and freshness still sent
+        mockMvc.perform(get("/repositories/{owner}/{repositoryName}", "octocat", "hello-world")
+                .header("If-None-Match", entry.getEtag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", entry.getEtag()))
+                .andExpect(header().exists("Cache-Control"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetRepository_PreSerializedBytesReused() throws Exception {
+        // Given
+        CachedRepository entry = new CachedRepository(helloWorld(), Instant.now());
+        when(repositoryService.getRepositoryEntry("octocat", "hello-world")).thenReturn(entry);
+
+        // When
+        mockMvc.perform(get("/repositories/{owner}/{repositoryName}", "octocat", "hello-world"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdAt").value("2011-01-26T19:01:12"));
+        byte[] first = entry.getJson();
+        mockMvc.perform(get("/repositories/{owner}/{repositoryName}", "octocat", "hello-world"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(first));
+
+        // Then - Serialized once for the entry, not per request
+        assertSame(first, entry.getJson());
+    }
+
+    @Test
+    void testGetRepository_GzipWhenAccepted() throws Exception {
+        // Given
+        CachedRepository entry = new CachedRepository(helloWorld(), Instant.now());
+        when(repositoryService.getRepositoryEntry("octocat", "hello-world")).thenReturn(entry);
+
+        // When
+        byte[] body = mockMvc.perform(get("/repositories/{owner}/{repositoryName}", "octocat", "hello-world")
+                .header("Accept-Encoding", "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"fullName\":\"octocat/hello-world\""));
+        }
+    }
+
     @Test
     void testGetRepository_NotFound() throws Exception {
         // Given
         String owner = "non-existent";
         String repositoryName = "repo";
 
-        when(repositoryService.getRepositoryDetails(owner, repositoryName))
+        when(repositoryService.getRepositoryEntry(owner, repositoryName))
             .thenThrow(new BizException("REPOSITORY_NOT_FOUND", 
                 "Repository not found: non-existent/repo", 
                 HttpStatus.NOT_FOUND.value()));
@@ -83,5 +188,74 @@ class RepositoryControllerTest {
                 .andExpect(jsonPath("$.errorCode").value("REPOSITORY_NOT_FOUND"))
                 .andExpect(jsonPath("$.message").value("Repository not found: non-existent/repo"));
     }
-}
 
+    @Test
+    void testGetRepository_RateLimited() throws Exception {
+        // Given
+        when(repositoryService.getRepositoryEntry("octocat", "hello-world"))
+            .thenThrow(new RateLimitedException("GitHub API rate limit exhausted, retry after 42s", 42));
+
+        // When & Then
+        mockMvc.perform(get("/repositories/{owner}/{repositoryName}", "octocat", "hello-world")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "42"))
+                .andExpect(jsonPath("$.errorCode").value("GITHUB_RATE_LIMITED"));
+    }
+
+    @Test
+    void testGetRepositoriesBatch_PerItemResults() throws Exception {
+        // Given
+        RepositoryResponse response = new RepositoryResponse(
+            "spring-projects/spring-boot",
+            "Spring Boot",
+            "https://github.com/spring-projects/spring-boot.git",
+            50000,
+            LocalDateTime.of(2020, 1, 1, 0, 0)
+        );
+        when(repositoryBatchService.getRepositoryDetailsBatch(anyList()))
+            .thenReturn(new BatchRepositoryResponse(List.of(
+                BatchRepositoryItem.success("spring-projects", "spring-boot", response),
+                BatchRepositoryItem.failure("non-existent", "repo", 404,
+                    "REPOSITORY_NOT_FOUND", "Repository not found: non-existent/repo")
+            )));
+
+        // When & Then
+        mockMvc.perform(post("/repositories/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"repositories\":["
+                    + "{\"owner\":\"spring-projects\",\"repositoryName\":\"spring-boot\"},"
+                    + "{\"owner\":\"non-existent\",\"repositoryName\":\"repo\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[0].repository.fullName").value("spring-projects/spring-boot"))
+                .andExpect(jsonPath("$.results[0].errorCode").doesNotExist())
+                .andExpect(jsonPath("$.results[1].status").value(404))
+                .andExpect(jsonPath("$.results[1].errorCode").value("REPOSITORY_NOT_FOUND"))
+                .andExpect(jsonPath("$.results[1].repository").doesNotExist());
+    }
+
+    @Test
+    void testGetRepositoriesBatch_InvalidRequest() throws Exception {
+        // Given
+        when(repositoryBatchService.getRepositoryDetailsBatch(anyList()))
+            .thenThrow(new IllegalArgumentException("Batch size 500 exceeds the maximum of 200"));
+
+        // When & Then
+        mockMvc.perform(post("/repositories/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"repositories\":[{\"owner\":\"a\",\"repositoryName\":\"b\"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_ARGUMENT"));
+    }
+
+    private static RepositoryResponse helloWorld() {
+        return new RepositoryResponse(
+            "octocat/hello-world",
+            "My first repository",
+            "https://github.com/octocat/hello-world.git",
+            80,
+            LocalDateTime.of(2011, 1, 26, 19, 1, 12)
+        );
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.xqiii.cache.e2e;
+
+import com.github.xqiii.cache.GithubRepoCacheApplication;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.service.ConsistentHashRing;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cluster mode test: several instances on localhost sharing one cache fill
+ *
+ * Three nodes are started in this JVM, each with its own in-memory database,
+ * and a fourth node is listed in the peers file but never started. Every
+ * repository is requested from every running node: GitHub is called once per
+ * repository, except for repositories owned by the missing node, which each
+ * running node then fetches itself.
+ * A repository GitHub is slow to answer is still filled through its owner.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class ClusterPeerFillTest {
+
+    private static final int RUNNING_NODES = 3;
+
+    @TempDir
+    static Path tempDir;
+
+    private static final GithubStubServer stub = GithubStubServer.start();
+    private static final List<String> nodeUrls = new ArrayList<>();
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static ConsistentHashRing ring;
+    private static String deadNodeUrl;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        stub.setHandler(request -> {
+            String fullName = request.path().substring("/repos/".length());
+            if (fullName.startsWith("gone-owner/")) {
+                return Response.json(404, "{\"message\":\"Not Found\"}");
+            }
+            Response response = Response.json(200, GithubStubServer.repositoryJson(fullName, 1));
+            // Slower than a fixed 5 s peer read timeout, well within the upstream read timeout
+            return fullName.startsWith("slow-owner/") ? response.withDelay(5500) : response;
+        });
+        for (int i = 0; i <= RUNNING_NODES; i++) {
+            nodeUrls.add("http://127.0.0.1:" + freePort());
+        }
+        deadNodeUrl = nodeUrls.get(RUNNING_NODES);
+        ring = new ConsistentHashRing(nodeUrls, 128);
+        Path peersFile = Files.write(tempDir.resolve("peers.txt"), nodeUrls);
+
+        for (int i = 0; i < RUNNING_NODES; i++) {
+            String url = nodeUrls.get(i);
+            nodes.add(new SpringApplicationBuilder(GithubRepoCacheApplication.class).run(
+                "--server.port=" + URI.create(url).getPort(),
+                "--spring.datasource.url=jdbc:h2:mem:cluster-node-" + i,
+                "--github.api.base-url=" + stub.baseUrl(),
+                "--github.cache.cluster.enabled=true",
+                "--github.cache.cluster.self-url=" + url,
+                "--github.cache.cluster.peers-file=" + peersFile,
+                "--logging.level.com.github.xqiii.cache=WARN"
+            ));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        stub.close();
+    }
+
+    @Test
+    void testRepositoryFetchedOncePerCluster() throws Exception {
+        // Given - Repositories owned by running nodes
+        List<String> repositoryNames = new ArrayList<>();
+        for (int i = 0; repositoryNames.size() < 30; i++) {
+            if (!ring.ownerOf(RepositoryKey.of("cluster-owner", "repo-" + i)).equals(deadNodeUrl)) {
+                repositoryNames.add("repo-" + i);
+            }
+        }
+
+        // When - Every node is asked for every repository
+        for (String repositoryName : repositoryNames) {
+            for (int node = 0; node < RUNNING_NODES; node++) {
+                HttpResponse<String> response = get(node, "/repositories/cluster-owner/" + repositoryName);
+                assertEquals(200, response.statusCode());
+                assertTrue(response.body().contains("cluster-owner/" + repositoryName));
+            }
+        }
+
+        // Then - GitHub saw each repository once
+        for (String repositoryName : repositoryNames) {
+            assertEquals(1, stub.requestCount("/repos/cluster-owner/" + repositoryName), repositoryName);
+        }
+    }
+
+    @Test
+    void testMissingRepositoryFetchedOncePerCluster() throws Exception {
+        // Given - A repository GitHub does not know, owned by a running node
+        String repositoryName = firstOwnedBy(false, "gone-owner");
+
+        // When
+        for (int node = 0; node < RUNNING_NODES; node++) {
+            assertEquals(404, get(node, "/repositories/gone-owner/" + repositoryName).statusCode());
+        }
+
+        // Then - The 404 was fetched once and served to every node by the owner
+        assertEquals(1, stub.requestCount("/repos/gone-owner/" + repositoryName));
+    }
+
+    @Test
+    void testSlowOwner_CallerWaitsForOwnerFill() throws Exception {
+        // Given - A repository owned by a running node, slow to come back from GitHub
+        String repositoryName = firstOwnedBy(false, "slow-owner");
+        String ownerUrl = ring.ownerOf(RepositoryKey.of("slow-owner", repositoryName));
+        int caller = ownerUrl.equals(nodeUrls.get(0)) ? 1 : 0;
+
+        // When - A node that does not own it misses
+        HttpResponse<String> response = get(caller, "/repositories/slow-owner/" + repositoryName);
+
+        // Then - The caller waited for the owner instead of giving up and calling GitHub itself
+        assertEquals(200, response.statusCode());
+        assertEquals(1, stub.requestCount("/repos/slow-owner/" + repositoryName));
+    }
+
+    @Test
+    void testOwnerDown_FallsBackToGithub() throws Exception {
+        // Given - A repository owned by the node that is not running
+        String repositoryName = firstOwnedBy(true, "orphan-owner");
+
+        // When
+        for (int node = 0; node < RUNNING_NODES; node++) {
+            assertEquals(200, get(node, "/repositories/orphan-owner/" + repositoryName).statusCode());
+        }
+
+        // Then - Each running node fetched it from GitHub itself
+        assertEquals(RUNNING_NODES, stub.requestCount("/repos/orphan-owner/" + repositoryName));
+    }
+
+    private static String firstOwnedBy(boolean deadNode, String owner) {
+        for (int i = 0; ; i++) {
+            String repositoryName = "repo-" + i;
+            if (ring.ownerOf(RepositoryKey.of(owner, repositoryName)).equals(deadNodeUrl) == deadNode) {
+                return repositoryName;
+            }
+        }
+    }
+
+    private HttpResponse<String> get(int node, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(nodeUrls.get(node) + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
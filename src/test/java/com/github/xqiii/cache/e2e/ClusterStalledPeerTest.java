@@ -0,0 +1,118 @@
+package com.github.xqiii.cache.e2e;
+
+import com.github.xqiii.cache.GithubRepoCacheApplication;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.service.ConsistentHashRing;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cluster mode test: an owner node that accepts the call but never answers
+ *
+ * One node is started next to a stub peer that holds every cache fill request
+ * far longer than the node's single-flight timeout. Concurrent misses on a key
+ * the stub owns must all be answered from GitHub once the peer read timeout
+ * runs out, instead of the waiting followers timing out first.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class ClusterStalledPeerTest {
+
+    private static final long SINGLE_FLIGHT_TIMEOUT_MILLIS = 3000;
+    private static final long PEER_STALL_MILLIS = 10000;
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @TempDir
+    static Path tempDir;
+
+    private static final GithubStubServer github = GithubStubServer.start();
+    private static final GithubStubServer stalledPeer = GithubStubServer.start();
+    private static ConsistentHashRing ring;
+    private static String nodeUrl;
+    private static ConfigurableApplicationContext node;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        github.setHandler(request -> Response.json(200,
+            GithubStubServer.repositoryJson(request.path().substring("/repos/".length()), 1)));
+        stalledPeer.setHandler(request -> Response.status(404).withDelay(PEER_STALL_MILLIS));
+
+        nodeUrl = "http://127.0.0.1:" + freePort();
+        List<String> nodeUrls = List.of(nodeUrl, stalledPeer.baseUrl());
+        ring = new ConsistentHashRing(nodeUrls, 128);
+        Path peersFile = Files.write(tempDir.resolve("peers.txt"), nodeUrls);
+
+        node = new SpringApplicationBuilder(GithubRepoCacheApplication.class).run(
+            "--server.port=" + URI.create(nodeUrl).getPort(),
+            "--spring.datasource.url=jdbc:h2:mem:cluster-stalled-peer",
+            "--github.api.base-url=" + github.baseUrl(),
+            "--github.cache.single-flight.timeout-ms=" + SINGLE_FLIGHT_TIMEOUT_MILLIS,
+            "--github.cache.cluster.enabled=true",
+            "--github.cache.cluster.self-url=" + nodeUrl,
+            "--github.cache.cluster.peers-file=" + peersFile,
+            "--logging.level.com.github.xqiii.cache=WARN"
+        );
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        node.close();
+        stalledPeer.close();
+        github.close();
+    }
+
+    @Test
+    void testStalledOwner_FollowersGetGithubAnswer() throws Exception {
+        // Given - A repository owned by the stalled peer
+        String repositoryName = null;
+        for (int i = 0; repositoryName == null; i++) {
+            if (ring.ownerOf(RepositoryKey.of("stalled-owner", "repo-" + i)).equals(stalledPeer.baseUrl())) {
+                repositoryName = "repo-" + i;
+            }
+        }
+        String path = "/repositories/stalled-owner/" + repositoryName;
+
+        // When - Concurrent misses: one leader asks the peer, the rest wait on it
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(nodeUrl + path)).GET().build();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // Then - The leader gave up on the peer in time to call GitHub, and no follower timed out
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode(), response.get().body());
+        }
+        assertEquals(1, stalledPeer.requestCount("/cluster" + path));
+        assertEquals(1, github.requestCount("/repos/stalled-owner/" + repositoryName));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.github.xqiii.cache.e2e;
 
+import com.github.xqiii.cache.dto.RepositoryKey;
 import com.github.xqiii.cache.entity.RepositoryEntity;
 import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,9 +39,13 @@ class RepositoryE2ETest {
     @Autowired
     private RepositoryRepository repositoryRepository;
 
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
     @BeforeEach
     void setUp() {
         repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
     }
 
     @Test
@@ -71,7 +77,7 @@ class RepositoryE2ETest {
                 .andExpect(jsonPath("$.createdAt").exists());
 
         // Verify saved to database
-        var savedEntity = repositoryRepository.findByOwnerAndRepositoryName(owner, repositoryName);
+        var savedEntity = repositoryRepository.findByCacheKey(RepositoryKey.of(owner, repositoryName).value());
         assert savedEntity.isPresent() : "Repository should be cached in database";
 
         // Second request - should get from cache (same response)
@@ -0,0 +1,141 @@
+package com.github.xqiii.cache.e2e;
+
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test: the in-flight cap keeps hits fast while GitHub is stalled
+ *
+ * GitHub answers every miss after {@value #STALL_MILLIS} ms. A burst of misses
+ * far larger than the Tomcat pool is fired, then cache hits are timed while the
+ * misses are still outstanding. Upstream calls are capped by the in-flight
+ * limiter, so the excess misses fail fast and release their Tomcat threads,
+ * and hits never queue behind them.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "server.tomcat.threads.max=16",
+    "github.api.max-in-flight=4",
+    "github.api.in-flight-acquire-timeout-ms=50"
+})
+@ActiveProfiles("test")
+class UpstreamInFlightCapLoadTest {
+
+    private static final long STALL_MILLIS = 2000;
+    private static final int MISS_REQUESTS = 48;
+    private static final int HIT_REQUESTS = 20;
+
+    private static final GithubStubServer stub = GithubStubServer.start();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void githubProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+        stub.setHandler(request -> Response.json(200,
+                GithubStubServer.repositoryJson(request.path().substring("/repos/".length()), 1))
+            .withDelay(STALL_MILLIS));
+    }
+
+    @Test
+    void testHitLatencyStaysFlatWhileMissesAreStalled() throws Exception {
+        // Given - A cached repository, warmed into the L1 tier
+        repositoryRepository.save(new RepositoryEntity(
+            "hit-owner",
+            "hit-repo",
+            "hit-owner/hit-repo",
+            "Hot repository",
+            "https://github.com/hit-owner/hit-repo.git",
+            1,
+            LocalDateTime.now()
+        ));
+        assertEquals(200, get("/repositories/hit-owner/hit-repo").statusCode());
+
+        // When - A burst of misses against a stalled GitHub
+        List<CompletableFuture<HttpResponse<String>>> misses = new ArrayList<>();
+        for (int i = 0; i < MISS_REQUESTS; i++) {
+            misses.add(httpClient.sendAsync(request("/repositories/stall-owner/stall-repo-" + i),
+                HttpResponse.BodyHandlers.ofString()));
+        }
+        Thread.sleep(300);
+
+        // Then - Hits issued while the misses are outstanding stay fast
+        long maxHitMillis = 0;
+        for (int i = 0; i < HIT_REQUESTS; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> hit = get("/repositories/hit-owner/hit-repo");
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertEquals(200, hit.statusCode());
+            maxHitMillis = Math.max(maxHitMillis, elapsedMillis);
+        }
+        assertTrue(maxHitMillis < STALL_MILLIS / 2,
+            "Hit latency should not queue behind stalled misses, max was " + maxHitMillis + " ms");
+
+        // Then - Only the capped number of misses reached GitHub, the rest failed fast
+        int busy = 0;
+        for (CompletableFuture<HttpResponse<String>> miss : misses) {
+            HttpResponse<String> response = miss.get(10, TimeUnit.SECONDS);
+            if (response.statusCode() == 503) {
+                assertTrue(response.body().contains("UPSTREAM_BUSY"));
+                busy++;
+            }
+        }
+        assertTrue(stub.requests().size() <= 4 + 1, "Upstream calls exceeded the in-flight cap");
+        assertTrue(busy >= MISS_REQUESTS - 5);
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(request(path), HttpResponse.BodyHandlers.ofString());
+    }
+}
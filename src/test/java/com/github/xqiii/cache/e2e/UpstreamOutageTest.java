@@ -0,0 +1,164 @@
+package com.github.xqiii.cache.e2e;
+
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker;
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker.State;
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outage test: circuit breaker and serve-stale against a faulty GitHub
+ *
+ * The stub first stalls every call past the read timeout. Once enough calls
+ * have timed out the circuit opens: true misses then fail in well under the
+ * timeout without reaching GitHub, and an expired cached repository is served
+ * with a stale warning. After GitHub recovers, a half-open probe closes the
+ * circuit again.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "github.api.read-timeout=" + UpstreamOutageTest.READ_TIMEOUT_MILLIS,
+    "github.api.circuit-breaker.window-size=4",
+    "github.api.circuit-breaker.minimum-calls=4",
+    "github.api.circuit-breaker.failure-rate-threshold=0.5",
+    "github.api.circuit-breaker.open-duration=PT2S",
+    "github.api.circuit-breaker.half-open-calls=1",
+    "github.cache.ttl.fresh=PT1M",
+    "github.cache.ttl.stale=PT1M"
+})
+@ActiveProfiles("test")
+class UpstreamOutageTest {
+
+    static final long READ_TIMEOUT_MILLIS = 1000;
+
+    private static final GithubStubServer stub = GithubStubServer.start();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @Autowired
+    private UpstreamCircuitBreaker circuitBreaker;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void githubProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @Test
+    void testOpenCircuitFailsFastAndServesStale() throws Exception {
+        // Given - An expired cached repository, and a GitHub that stalls past the read timeout
+        RepositoryEntity expired = new RepositoryEntity("stale-owner", "stale-repo", "stale-owner/stale-repo",
+            "Cached before the outage", "https://github.com/stale-owner/stale-repo.git", 3, LocalDateTime.now());
+        expired.setFetchedAt(Instant.now().minus(Duration.ofHours(1)));
+        repositoryRepository.save(expired);
+        stub.setHandler(answer().andThen(response -> response.withDelay(3 * READ_TIMEOUT_MILLIS)));
+
+        // When - Enough misses time out to trip the circuit
+        List<CompletableFuture<HttpResponse<String>>> timedOut = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            timedOut.add(httpClient.sendAsync(request("/repositories/down-owner/repo-" + i),
+                HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : timedOut) {
+            assertEquals(500, response.get(10, TimeUnit.SECONDS).statusCode());
+        }
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        int upstreamCalls = stub.requests().size();
+
+        // Then - A true miss fails fast without reaching GitHub
+        long start = System.nanoTime();
+        HttpResponse<String> miss = get("/repositories/down-owner/another-repo");
+        long missMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(503, miss.statusCode());
+        assertTrue(miss.body().contains("UPSTREAM_UNAVAILABLE"));
+        assertTrue(miss.headers().firstValue("Retry-After").isPresent());
+        assertTrue(missMillis < READ_TIMEOUT_MILLIS / 2, "Open circuit should fail fast, took " + missMillis + " ms");
+
+        // Then - The expired repository is served, flagged as stale
+        start = System.nanoTime();
+        HttpResponse<String> stale = get("/repositories/stale-owner/stale-repo");
+        long staleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(200, stale.statusCode());
+        assertTrue(stale.body().contains("Cached before the outage"));
+        assertEquals("110 - \"Response is Stale\"", stale.headers().firstValue("Warning").orElse(null));
+        assertTrue(staleMillis < READ_TIMEOUT_MILLIS / 2, "Stale hit should be fast, took " + staleMillis + " ms");
+        assertEquals(upstreamCalls, stub.requests().size());
+
+        // When - GitHub recovers and the open duration passes
+        stub.setHandler(answer());
+        Thread.sleep(2100);
+
+        // Then - The half-open probe succeeds and closes the circuit
+        assertEquals(200, get("/repositories/up-owner/up-repo").statusCode());
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        HttpResponse<String> refreshed = get("/repositories/stale-owner/stale-repo");
+        assertEquals(200, refreshed.statusCode());
+        assertFalse(refreshed.headers().firstValue("Warning").isPresent());
+        assertTrue(refreshed.body().contains("Description of stale-owner/stale-repo"));
+    }
+
+    /**
+     * Answer /repos/{owner}/{name} with a repository of that name
+     */
+    private static Function<GithubStubServer.Request, Response> answer() {
+        return request -> Response.json(200,
+            GithubStubServer.repositoryJson(request.path().substring("/repos/".length()), 1));
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(request(path), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.dto.BatchRepositoryItem;
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.RepositoryIdentifier;
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.exception.BizException;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.GithubApiService;
+import com.github.xqiii.cache.service.RepositoryBatchService;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch lookup integration test
+ *
+ * Not transactional: misses are resolved on worker threads.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest(properties = {
+    "github.cache.batch.max-size=10",
+    "github.cache.batch.parallelism=2",
+    "github.cache.batch.max-threads=2",
+    "github.cache.single-flight.timeout-ms=2000"
+})
+@ActiveProfiles("test")
+class RepositoryBatchIntegrationTest {
+
+    @Autowired
+    private RepositoryBatchService repositoryBatchService;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @MockBean
+    private GithubApiService githubApiService;
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @Test
+    void testBatch_HitsMissesAndErrorsReportedPerItem() {
+        // Given - Two cached repositories, one resolvable miss and one missing repository
+        saveEntity("owner-a", "repo-a");
+        saveEntity("owner-b", "repo-b");
+        // Cross pair of the cached owners/names, must not be matched by the IN query
+        saveEntity("owner-a", "repo-b");
+
+        var githubResponse = new GithubApiResponse();
+        githubResponse.setFullName("owner-c/repo-c");
+        githubResponse.setCloneUrl("https://github.com/owner-c/repo-c.git");
+        githubResponse.setStargazersCount(3);
+        githubResponse.setCreatedAt("2020-01-01T00:00:00Z");
+        when(githubApiService.fetchRepositoryDetails("owner-c", "repo-c")).thenReturn(githubResponse);
+        when(githubApiService.fetchRepositoryDetails("missing", "repo"))
+            .thenThrow(new BizException("REPOSITORY_NOT_FOUND", "Repository not found: missing/repo",
+                HttpStatus.NOT_FOUND.value()));
+
+        // When
+        List<BatchRepositoryItem> results = repositoryBatchService.getRepositoryDetailsBatch(List.of(
+            new RepositoryIdentifier("owner-a", "repo-a"),
+            new RepositoryIdentifier("missing", "repo"),
+            new RepositoryIdentifier("owner-c", "repo-c"),
+            new RepositoryIdentifier("owner-b", "repo-b"),
+            new RepositoryIdentifier("owner-a", "repo-a")
+        )).getResults();
+
+        // Then - One result per requested item, in request order
+        assertEquals(5, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals("owner-a/repo-a", results.get(0).getRepository().getFullName());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals("REPOSITORY_NOT_FOUND", results.get(1).getErrorCode());
+        assertNull(results.get(1).getRepository());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals("owner-c/repo-c", results.get(2).getRepository().getFullName());
+        assertEquals("owner-b/repo-b", results.get(3).getRepository().getFullName());
+        assertEquals("owner-a/repo-a", results.get(4).getRepository().getFullName());
+
+        // Then - Only the misses went to GitHub, once each
+        verify(githubApiService, times(1)).fetchRepositoryDetails("owner-c", "repo-c");
+        verify(githubApiService, times(1)).fetchRepositoryDetails("missing", "repo");
+        verify(githubApiService, times(2)).fetchRepositoryDetails(anyString(), anyString());
+    }
+
+    @Test
+    void testConcurrentBatches_ShareBoundedPool() throws Exception {
+        // Given - Slow misses, and the names of the threads resolving them
+        Set<String> helperThreads = ConcurrentHashMap.newKeySet();
+        when(githubApiService.fetchRepositoryDetails(anyString(), anyString())).thenAnswer(invocation -> {
+            String name = Thread.currentThread().getName();
+            if (name.startsWith("repo-batch-")) {
+                helperThreads.add(name);
+            }
+            Thread.sleep(50);
+            String fullName = invocation.getArgument(0) + "/" + invocation.getArgument(1);
+            var githubResponse = new GithubApiResponse();
+            githubResponse.setFullName(fullName);
+            githubResponse.setCloneUrl("https://github.com/" + fullName + ".git");
+            githubResponse.setCreatedAt("2020-01-01T00:00:00Z");
+            return githubResponse;
+        });
+
+        // When - Six batches of four misses at once, each allowed two workers
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        List<CompletableFuture<List<BatchRepositoryItem>>> batches = new ArrayList<>();
+        try {
+            for (int batch = 0; batch < 6; batch++) {
+                List<RepositoryIdentifier> identifiers = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    identifiers.add(new RepositoryIdentifier("pool-owner-" + batch, "repo-" + i));
+                }
+                batches.add(CompletableFuture.supplyAsync(
+                    () -> repositoryBatchService.getRepositoryDetailsBatch(identifiers).getResults(), callers));
+            }
+
+            // Then - Every miss resolved, with helpers from the two pooled threads only
+            for (CompletableFuture<List<BatchRepositoryItem>> batch : batches) {
+                List<BatchRepositoryItem> results = batch.get(10, TimeUnit.SECONDS);
+                assertTrue(results.stream().allMatch(item -> item.getStatus() == 200));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertTrue(helperThreads.size() <= 2, "Helper threads: " + helperThreads);
+    }
+
+    @Test
+    void testHelperDiesWithError_BatchStillAnswers() throws Exception {
+        // Given - The request thread's miss is slow enough for a helper to take the other one, which dies
+        when(githubApiService.fetchRepositoryDetails(anyString(), anyString())).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("repo-batch-")) {
+                throw new StackOverflowError();
+            }
+            Thread.sleep(300);
+            return githubResponse(invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        });
+
+        // When
+        List<BatchRepositoryItem> results = CompletableFuture.supplyAsync(() -> repositoryBatchService
+            .getRepositoryDetailsBatch(List.of(
+                new RepositoryIdentifier("error-owner", "repo-1"),
+                new RepositoryIdentifier("error-owner", "repo-2")))
+            .getResults()).get(5, TimeUnit.SECONDS);
+
+        // Then - The request did not hang, and the lost miss is reported as a failure
+        assertEquals(1, results.stream().filter(item -> item.getStatus() == 200).count());
+        assertEquals(1, results.stream().filter(item -> item.getStatus() == 500).count());
+    }
+
+    @Test
+    void testHelperStuck_ReportedAsTimedOutAfterSingleFlightTimeout() throws Exception {
+        // Given - A helper's miss outlasts the 2 s single-flight timeout
+        when(githubApiService.fetchRepositoryDetails(anyString(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(Thread.currentThread().getName().startsWith("repo-batch-") ? 5000 : 300);
+            return githubResponse(invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        });
+
+        // When
+        long start = System.nanoTime();
+        List<BatchRepositoryItem> results = repositoryBatchService.getRepositoryDetailsBatch(List.of(
+            new RepositoryIdentifier("stuck-owner", "repo-1"),
+            new RepositoryIdentifier("stuck-owner", "repo-2"))).getResults();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then - The batch answered without waiting for the stuck miss
+        assertTrue(elapsedMillis < 4000, "Batch took " + elapsedMillis + " ms");
+        assertEquals(1, results.stream().filter(item -> item.getStatus() == 200).count());
+        BatchRepositoryItem timedOut = results.stream().filter(item -> item.getStatus() == 504).findFirst()
+            .orElseThrow();
+        assertEquals("UPSTREAM_TIMEOUT", timedOut.getErrorCode());
+    }
+
+    @Test
+    void testBatch_RejectsOversizedAndEmptyBatches() {
+        List<RepositoryIdentifier> oversized = Collections.nCopies(11, new RepositoryIdentifier("a", "b"));
+        assertThrows(IllegalArgumentException.class, () -> repositoryBatchService.getRepositoryDetailsBatch(oversized));
+        assertThrows(IllegalArgumentException.class, () -> repositoryBatchService.getRepositoryDetailsBatch(List.of()));
+    }
+
+    private static GithubApiResponse githubResponse(String fullName) {
+        var githubResponse = new GithubApiResponse();
+        githubResponse.setFullName(fullName);
+        githubResponse.setCloneUrl("https://github.com/" + fullName + ".git");
+        githubResponse.setCreatedAt("2020-01-01T00:00:00Z");
+        return githubResponse;
+    }
+
+    private void saveEntity(String owner, String repositoryName) {
+        repositoryRepository.save(new RepositoryEntity(
+            owner,
+            repositoryName,
+            owner + "/" + repositoryName,
+            "Cached",
+            "https://github.com/" + owner + "/" + repositoryName + ".git",
+            1,
+            LocalDateTime.now()
+        ));
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.service.RepositoryService;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Connection hold time benchmark for the miss and hit paths
+ *
+ * GitHub answers every miss after {@value #STALL_MILLIS} ms. With a two-connection
+ * pool, more concurrent misses than connections must all succeed, and no
+ * connection may be checked out while the upstream calls are outstanding. Hits
+ * served from the database by the projection query are timed and reported.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.hikari.maximum-pool-size=2",
+    "spring.datasource.hikari.connection-timeout=500"
+})
+@ActiveProfiles("test")
+class RepositoryConnectionHoldTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryConnectionHoldTest.class);
+
+    private static final long STALL_MILLIS = 1000;
+    private static final int CONCURRENT_MISSES = 8;
+    private static final int HIT_REQUESTS = 500;
+
+    private static final GithubStubServer stub = GithubStubServer.start();
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void githubProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+        stub.setHandler(request -> {
+            String name = request.path().substring(request.path().lastIndexOf('/') + 1);
+            return Response.json(200, GithubStubServer.repositoryJson("hold-owner/" + name, 1))
+                .withDelay(STALL_MILLIS);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @Test
+    void testMisses_DoNotHoldConnectionsDuringUpstreamCall() throws Exception {
+        // When - More concurrent misses than pooled connections against a stalled GitHub
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_MISSES);
+        List<Future<String>> futures = new ArrayList<>();
+        int maxActive = 0;
+        try {
+            for (int i = 0; i < CONCURRENT_MISSES; i++) {
+                String name = "repo-" + i;
+                futures.add(executor.submit(
+                    () -> repositoryService.getRepositoryDetails("hold-owner", name).getFullName()));
+            }
+            // Sample the pool while the upstream calls are outstanding
+            Thread.sleep(200);
+            long sampleUntil = System.currentTimeMillis() + STALL_MILLIS / 2;
+            while (System.currentTimeMillis() < sampleUntil) {
+                maxActive = Math.max(maxActive, hikari().getHikariPoolMXBean().getActiveConnections());
+                Thread.sleep(5);
+            }
+
+            // Then - Every miss succeeds despite the two-connection pool
+            for (int i = 0; i < CONCURRENT_MISSES; i++) {
+                assertEquals("hold-owner/repo-" + i, futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Connections active while GitHub was stalled: max {}", maxActive);
+        assertEquals(0, maxActive, "No connection should be held across the upstream call");
+        assertEquals(CONCURRENT_MISSES, repositoryRepository.count());
+    }
+
+    @Test
+    void testDatabaseHits_ProjectionLatency() {
+        // Given
+        repositoryRepository.save(new RepositoryEntity("hold-owner", "hit-repo", "hold-owner/hit-repo",
+            "Hit", "https://github.com/hold-owner/hit-repo.git", 1, LocalDateTime.now()));
+
+        // When - Every lookup bypasses the L1 tier and reads the row
+        int upstreamCalls = stub.requests().size();
+        long start = System.nanoTime();
+        for (int i = 0; i < HIT_REQUESTS; i++) {
+            l1Cache.invalidateAll();
+            assertEquals("hold-owner/hit-repo",
+                repositoryService.getRepositoryDetails("hold-owner", "hit-repo").getFullName());
+        }
+        long averageMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / HIT_REQUESTS;
+
+        // Then
+        logger.info("Database hit latency: {} us average over {} lookups", averageMicros, HIT_REQUESTS);
+        assertEquals(upstreamCalls, stub.requests().size());
+        assertEquals(0, hikari().getHikariPoolMXBean().getActiveConnections());
+    }
+
+    private HikariDataSource hikari() {
+        return (HikariDataSource) dataSource;
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.GithubApiService;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.service.RepositoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TTL, stale-while-revalidate and conditional revalidation test
+ *
+ * Not transactional: the background refresh runs on its own thread and must see committed rows.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest(properties = {
+    "github.cache.ttl.fresh=PT1H",
+    "github.cache.ttl.stale=PT1H"
+})
+@ActiveProfiles("test")
+class RepositoryFreshnessTest {
+
+    private static final String OWNER = "ttl-owner";
+    private static final String REPOSITORY_NAME = "ttl-repo";
+    private static final RepositoryKey KEY = RepositoryKey.of(OWNER, REPOSITORY_NAME);
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @MockBean
+    private GithubApiService githubApiService;
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+
+        var githubResponse = new GithubApiResponse();
+        githubResponse.setFullName("ttl-owner/ttl-repo");
+        githubResponse.setDescription("Refreshed description");
+        githubResponse.setCloneUrl("https://github.com/ttl-owner/ttl-repo.git");
+        githubResponse.setStargazersCount(20);
+        githubResponse.setCreatedAt("2020-01-01T00:00:00Z");
+        when(githubApiService.fetchRepositoryDetails(OWNER, REPOSITORY_NAME)).thenReturn(githubResponse);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @Test
+    void testStaleEntry_ServedImmediatelyThenRefreshedInBackground() {
+        // Given - An entry fetched 90 minutes ago: past the fresh TTL, inside the stale window
+        saveEntityFetchedAgo(Duration.ofMinutes(90));
+
+        // When
+        var response = repositoryService.getRepositoryDetails(OWNER, REPOSITORY_NAME);
+
+        // Then - The cached value is returned without waiting for GitHub
+        assertEquals("Cached description", response.getDescription());
+
+        // Then - The background refresh updates the row and the in-memory tier
+        verify(githubApiService, timeout(5000).times(1)).fetchRepositoryDetails(OWNER, REPOSITORY_NAME);
+        awaitDescription("Refreshed description");
+        RepositoryEntity refreshed = repositoryRepository.findByCacheKey(KEY.value()).get();
+        assertEquals(20, refreshed.getStars());
+        assertEquals(1, repositoryRepository.count());
+    }
+
+    @Test
+    void testExpiredEntry_ReloadedOnRequestPath() {
+        // Given - An entry older than the fresh TTL plus the stale window
+        saveEntityFetchedAgo(Duration.ofHours(3));
+
+        // When
+        var response = repositoryService.getRepositoryDetails(OWNER, REPOSITORY_NAME);
+
+        // Then - The request waits for GitHub and returns the new data
+        assertEquals("Refreshed description", response.getDescription());
+        verify(githubApiService, times(1)).fetchRepositoryDetails(OWNER, REPOSITORY_NAME);
+        assertEquals(1, repositoryRepository.count());
+    }
+
+    @Test
+    void testExpiredEntry_RevalidatedWithETag_NotModified() {
+        // Given - An expired entry carrying GitHub validators, and GitHub answering 304
+        RepositoryEntity entity = saveEntityFetchedAgo(Duration.ofHours(3));
+        entity.setEtag("\"abc123\"");
+        repositoryRepository.save(entity);
+        when(githubApiService.fetchRepositoryDetailsIfModified(OWNER, REPOSITORY_NAME, "\"abc123\"", null))
+            .thenReturn(Optional.empty());
+        Instant before = Instant.now();
+
+        // When
+        var response = repositoryService.getRepositoryDetails(OWNER, REPOSITORY_NAME);
+
+        // Then - The cached details are kept and only the timestamp moves
+        assertEquals("Cached description", response.getDescription());
+        verify(githubApiService, never()).fetchRepositoryDetails(OWNER, REPOSITORY_NAME);
+        RepositoryEntity revalidated = repositoryRepository.findByCacheKey(KEY.value()).get();
+        assertFalse(revalidated.getFetchedAt().isBefore(before));
+        assertEquals("\"abc123\"", revalidated.getEtag());
+        assertEquals(10, revalidated.getStars());
+    }
+
+    @Test
+    void testFreshEntry_NotRefreshed() {
+        // Given
+        saveEntityFetchedAgo(Duration.ofMinutes(5));
+
+        // When
+        var response = repositoryService.getRepositoryDetails(OWNER, REPOSITORY_NAME);
+
+        // Then
+        assertEquals("Cached description", response.getDescription());
+        verify(githubApiService, timeout(200).times(0)).fetchRepositoryDetails(OWNER, REPOSITORY_NAME);
+    }
+
+    private RepositoryEntity saveEntityFetchedAgo(Duration age) {
+        RepositoryEntity entity = new RepositoryEntity(
+            OWNER,
+            REPOSITORY_NAME,
+            "ttl-owner/ttl-repo",
+            "Cached description",
+            "https://github.com/ttl-owner/ttl-repo.git",
+            10,
+            LocalDateTime.of(2020, 1, 1, 0, 0)
+        );
+        entity.setFetchedAt(Instant.now().minus(age));
+        return repositoryRepository.save(entity);
+    }
+
+    private void awaitDescription(String expected) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            var response = repositoryService.getRepositoryDetails(OWNER, REPOSITORY_NAME);
+            if (expected.equals(response.getDescription())) {
+                return;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertEquals(expected, repositoryService.getRepositoryDetails(OWNER, REPOSITORY_NAME).getDescription());
+    }
+}
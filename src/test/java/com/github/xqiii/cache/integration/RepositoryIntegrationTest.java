@@ -1,15 +1,21 @@
 package com.github.xqiii.cache.integration;
 
 import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.RepositoryKey;
 import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.exception.BizException;
+import com.github.xqiii.cache.repository.RepositoryAliasRepository;
 import com.github.xqiii.cache.repository.RepositoryRepository;
 import com.github.xqiii.cache.service.GithubApiService;
+import com.github.xqiii.cache.service.NegativeCache;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
 import com.github.xqiii.cache.service.RepositoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,7 +23,10 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
@@ -42,12 +51,24 @@ class RepositoryIntegrationTest {
     @Autowired
     private RepositoryRepository repositoryRepository;
 
+    @Autowired
+    private RepositoryAliasRepository aliasRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @Autowired
+    private NegativeCache negativeCache;
+
     @MockBean
     private GithubApiService githubApiService;
 
     @BeforeEach
     void setUp() {
         repositoryRepository.deleteAll();
+        aliasRepository.deleteAll();
+        l1Cache.invalidateAll();
+        negativeCache.invalidateAll();
     }
 
     @Test
@@ -106,7 +127,7 @@ class RepositoryIntegrationTest {
         
         // Verify saved to database
         Optional<RepositoryEntity> savedEntity = repositoryRepository
-            .findByOwnerAndRepositoryName(owner, repositoryName);
+            .findByCacheKey(RepositoryKey.of(owner, repositoryName).value());
         assertTrue(savedEntity.isPresent());
         assertEquals("spring-projects/spring-boot", savedEntity.get().getFullName());
 
@@ -121,5 +142,102 @@ class RepositoryIntegrationTest {
         // Verify GitHub API was called only once
         verify(githubApiService, times(1)).fetchRepositoryDetails(owner, repositoryName);
     }
-}
 
+    @Test
+    void testGetRepository_FromL1Cache() {
+        // Given - Pre-save a repository and load it once to populate the L1 tier
+        String owner = "l1-owner";
+        String repositoryName = "l1-repo";
+        repositoryRepository.save(new RepositoryEntity(
+            owner,
+            repositoryName,
+            "l1-owner/l1-repo",
+            "L1 repository",
+            "https://github.com/l1-owner/l1-repo.git",
+            7,
+            LocalDateTime.now()
+        ));
+        var response1 = repositoryService.getRepositoryDetails(owner, repositoryName);
+
+        // When - The database row is gone, the in-memory tier still serves it
+        repositoryRepository.deleteAll();
+        var response2 = repositoryService.getRepositoryDetails(owner, repositoryName);
+
+        // Then - The same immutable instance is returned without touching GitHub
+        assertSame(response1, response2);
+        assertEquals("l1-owner/l1-repo", response2.getFullName());
+        verify(githubApiService, never()).fetchRepositoryDetails(anyString(), anyString());
+    }
+
+    @Test
+    void testGetRepository_NotFoundRemembered() {
+        // Given - GitHub does not know the repository
+        String owner = "ghost-owner";
+        String repositoryName = "ghost-repo";
+        when(githubApiService.fetchRepositoryDetails(owner, repositoryName))
+            .thenThrow(new BizException("REPOSITORY_NOT_FOUND", "Repository not found: ghost-owner/ghost-repo",
+                HttpStatus.NOT_FOUND.value()));
+
+        // When - Asked for repeatedly
+        for (int i = 0; i < 5; i++) {
+            BizException exception = assertThrows(BizException.class,
+                () -> repositoryService.getRepositoryDetails(owner, repositoryName));
+            assertEquals("REPOSITORY_NOT_FOUND", exception.getErrorCode());
+            assertEquals(HttpStatus.NOT_FOUND.value(), exception.getHttpStatus());
+        }
+
+        // Then - Only the first lookup reached GitHub
+        verify(githubApiService, times(1)).fetchRepositoryDetails(owner, repositoryName);
+    }
+
+    @Test
+    void testGetRepository_CaseInsensitiveKey() {
+        // Given - GitHub answers for the repository however it is cased
+        when(githubApiService.fetchRepositoryDetails(anyString(), anyString()))
+            .thenReturn(githubResponse("Octocat/Hello-World"));
+
+        // When - Requested under three spellings
+        var response1 = repositoryService.getRepositoryDetails("Octocat", "Hello-World");
+        var response2 = repositoryService.getRepositoryDetails("octocat", "hello-world");
+        var response3 = repositoryService.getRepositoryDetails("OCTOCAT", "HELLO-WORLD");
+
+        // Then - One upstream call, one row and one shared L1 entry
+        verify(githubApiService, times(1)).fetchRepositoryDetails(anyString(), anyString());
+        assertSame(response1, response2);
+        assertSame(response1, response3);
+        assertEquals(1, repositoryRepository.count());
+        assertEquals("octocat/hello-world", repositoryRepository.findAll().get(0).getCacheKey());
+    }
+
+    @Test
+    void testGetRepository_RenamedRecordsAlias() {
+        // Given - GitHub redirects the old name to the renamed repository
+        when(githubApiService.fetchRepositoryDetails("old-owner", "old-repo"))
+            .thenReturn(githubResponse("new-owner/new-repo"));
+
+        // When - The old name is requested, then the L1 tier is lost
+        var response1 = repositoryService.getRepositoryDetails("old-owner", "old-repo");
+        l1Cache.invalidateAll();
+        var response2 = repositoryService.getRepositoryDetails("Old-Owner", "Old-Repo");
+        var response3 = repositoryService.getRepositoryDetails("new-owner", "new-repo");
+
+        // Then - The row is stored under the new name and the old name resolves through the alias
+        assertEquals("new-owner/new-repo", response1.getFullName());
+        assertEquals("new-owner/new-repo", response2.getFullName());
+        assertEquals("new-owner/new-repo", response3.getFullName());
+        assertTrue(repositoryRepository.findByCacheKey("new-owner/new-repo").isPresent());
+        assertFalse(repositoryRepository.findByCacheKey("old-owner/old-repo").isPresent());
+        assertEquals(Optional.of("new-owner/new-repo"), aliasRepository.findTargetKey("old-owner/old-repo"));
+        verify(githubApiService, times(1)).fetchRepositoryDetails(anyString(), anyString());
+    }
+
+    private static GithubApiResponse githubResponse(String fullName) {
+        var githubResponse = new GithubApiResponse();
+        githubResponse.setFullName(fullName);
+        githubResponse.setDescription("Repository " + fullName);
+        githubResponse.setCloneUrl("https://github.com/" + fullName + ".git");
+        githubResponse.setStargazersCount(1);
+        githubResponse.setCreatedAt("2020-01-01T00:00:00Z");
+        return githubResponse;
+    }
+}
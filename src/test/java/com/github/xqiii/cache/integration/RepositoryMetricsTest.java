@@ -0,0 +1,112 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.NegativeCache;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Metrics test: lookup outcomes and upstream timings on the Prometheus endpoint
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class RepositoryMetricsTest {
+
+    private static final GithubStubServer stub = GithubStubServer.start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @Autowired
+    private NegativeCache negativeCache;
+
+    @DynamicPropertySource
+    static void githubProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+        negativeCache.invalidateAll();
+        stub.setHandler(request -> request.path().endsWith("/missing")
+            ? Response.json(404, "{\"message\":\"Not Found\"}")
+            : Response.json(200, GithubStubServer.repositoryJson("metrics-owner/metrics-repo", 7))
+                .withHeader("X-RateLimit-Limit", "5000")
+                .withHeader("X-RateLimit-Remaining", "4999"));
+    }
+
+    @Test
+    void testLookupOutcomesAndUpstreamTimingsExported() throws Exception {
+        double misses = lookups("miss");
+        double hits = lookups("hit");
+        double negatives = lookups("negative");
+
+        // When - A miss, a hit, and the same unknown repository twice
+        mockMvc.perform(get("/repositories/metrics-owner/metrics-repo")).andExpect(status().isOk());
+        mockMvc.perform(get("/repositories/metrics-owner/metrics-repo")).andExpect(status().isOk());
+        mockMvc.perform(get("/repositories/metrics-owner/missing")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/repositories/metrics-owner/missing")).andExpect(status().isNotFound());
+
+        // Then - The second 404 came from the negative cache
+        assertEquals(misses + 2, lookups("miss"));
+        assertEquals(hits + 1, lookups("hit"));
+        assertEquals(negatives + 1, lookups("negative"));
+        assertEquals(1, meterRegistry.get("github.upstream.requests")
+            .tag("api", "rest").tag("status", "200").timer().count());
+        assertEquals(1, meterRegistry.get("github.upstream.requests")
+            .tag("api", "rest").tag("status", "404").timer().count());
+
+        // Then - Counters, histograms and gauges are scraped from the Prometheus endpoint
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertTrue(scrape.contains("github_cache_lookups_total{result=\"negative\""), scrape);
+        assertTrue(scrape.contains("github_upstream_requests_seconds_bucket{api=\"rest\""), scrape);
+        assertTrue(scrape.contains("github_cache_db_operations_seconds_count{operation=\"find_snapshot\""), scrape);
+        assertTrue(scrape.contains("github_upstream_inflight "), scrape);
+        assertTrue(scrape.contains("github_ratelimit_remaining 4999.0"), scrape);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("github.cache.lookups").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.CachePrefetcher;
+import com.github.xqiii.cache.service.CachePrefetcher.PrefetchResult;
+import com.github.xqiii.cache.service.GithubApiService;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.service.RepositoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Popularity-driven prefetch test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest(properties = {
+    "github.cache.ttl.fresh=PT1H",
+    "github.cache.prefetch.enabled=true",
+    "github.cache.prefetch.interval=PT1H",
+    "github.cache.prefetch.top-k=4",
+    "github.cache.prefetch.max-upstream-calls=2",
+    "github.cache.prefetch.refresh-ahead=PT5M"
+})
+@ActiveProfiles("test")
+class RepositoryPrefetchTest {
+
+    private static final String OWNER = "prefetch-owner";
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private CachePrefetcher cachePrefetcher;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private GithubApiService githubApiService;
+
+    @DynamicPropertySource
+    static void prefetchProperties(DynamicPropertyRegistry registry) throws IOException {
+        // A fresh directory per run, so no hot keys are restored on startup
+        Path dataDir = Files.createTempDirectory("repository-prefetch-test");
+        registry.add("github.cache.prefetch.hot-keys-path", () -> dataDir.resolve("hot-keys.txt").toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+        when(githubApiService.fetchRepositoryDetails(anyString(), anyString())).thenAnswer(invocation -> {
+            String fullName = invocation.getArgument(0) + "/" + invocation.getArgument(1);
+            GithubApiResponse response = new GithubApiResponse();
+            response.setFullName(fullName);
+            response.setDescription("Description of " + fullName);
+            response.setCloneUrl("https://github.com/" + fullName + ".git");
+            response.setStargazersCount(1);
+            response.setCreatedAt("2020-01-01T00:00:00Z");
+            return response;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @Test
+    void testHottestExpiringRepositoriesRefreshedWithinBudget() {
+        // Given - Four repositories requested with decreasing popularity
+        request("hot", 5);
+        request("warm", 4);
+        request("tepid", 3);
+        request("cold", 1);
+
+        // Given - All but "warm" are about to turn stale, and only the database has them
+        Instant expiring = Instant.now().minus(Duration.ofHours(1)).plus(Duration.ofMinutes(1));
+        for (String repositoryName : new String[] {"hot", "tepid", "cold"}) {
+            transactionTemplate.executeWithoutResult(status ->
+                repositoryRepository.touchFetchedAt(RepositoryKey.of(OWNER, repositoryName).value(), expiring));
+        }
+        l1Cache.invalidateAll();
+        clearInvocations(githubApiService);
+
+        // When
+        PrefetchResult result = cachePrefetcher.prefetch();
+
+        // Then - The fresh entry is skipped and the budget of two goes to the most popular expiring ones
+        assertEquals(2, result.scheduled());
+        verify(githubApiService, timeout(2000)).fetchRepositoryDetails(OWNER, "hot");
+        verify(githubApiService, timeout(2000)).fetchRepositoryDetails(OWNER, "tepid");
+        verify(githubApiService, after(300).never()).fetchRepositoryDetails(OWNER, "warm");
+        verify(githubApiService, never()).fetchRepositoryDetails(OWNER, "cold");
+    }
+
+    private void request(String repositoryName, int times) {
+        for (int i = 0; i < times; i++) {
+            repositoryService.getRepositoryDetails(OWNER, repositoryName);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.GithubApiService;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.service.RepositoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent miss coalescing test
+ *
+ * Not transactional: every request thread commits its own work, as in production.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RepositorySingleFlightTest {
+
+    private static final int CONCURRENT_REQUESTS = 16;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @MockBean
+    private GithubApiService githubApiService;
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @Test
+    void testConcurrentMisses_SingleUpstreamCallAndInsert() throws Exception {
+        // Given - A slow GitHub API so that every request arrives while the first is in flight
+        String owner = "hot-owner";
+        String repositoryName = "hot-repo";
+        CountDownLatch allStarted = new CountDownLatch(CONCURRENT_REQUESTS);
+
+        var githubResponse = new GithubApiResponse();
+        githubResponse.setFullName("hot-owner/hot-repo");
+        githubResponse.setDescription("Hot repository");
+        githubResponse.setCloneUrl("https://github.com/hot-owner/hot-repo.git");
+        githubResponse.setStargazersCount(42);
+        githubResponse.setCreatedAt("2020-01-01T00:00:00Z");
+
+        when(githubApiService.fetchRepositoryDetails(owner, repositoryName)).thenAnswer(invocation -> {
+            allStarted.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            return githubResponse;
+        });
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        List<Future<RepositoryResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    allStarted.countDown();
+                    return repositoryService.getRepositoryDetails(owner, repositoryName);
+                }));
+            }
+
+            // Then - Every caller gets the same data
+            for (Future<RepositoryResponse> future : futures) {
+                RepositoryResponse response = future.get(10, TimeUnit.SECONDS);
+                assertEquals("hot-owner/hot-repo", response.getFullName());
+                assertEquals(42, response.getStars());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then - One upstream call and one row
+        verify(githubApiService, times(1)).fetchRepositoryDetails(owner, repositoryName);
+        assertEquals(1, repositoryRepository.count());
+        assertTrue(repositoryRepository.findByCacheKey(RepositoryKey.of(owner, repositoryName).value()).isPresent());
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.GithubRepoCacheApplication;
+import com.github.xqiii.cache.entity.RepositoryEntity;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.CacheWarmer;
+import com.github.xqiii.cache.service.CacheWarmer.WarmupResult;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.service.RepositoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Warm restart benchmark for the persistent profile
+ *
+ * Fills a file-backed store, stops the application and starts it again on the
+ * same files: every unexpired row must be back in the L1 tier before the web
+ * server accepts the first request, and the time taken to replay them is reported.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class RepositoryWarmRestartTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryWarmRestartTest.class);
+
+    private static final int ENTRIES = 2000;
+    private static final int EXPIRED_ENTRIES = 50;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testRestart_ReplaysPersistedEntriesIntoL1() {
+        // Given - A persistent store with unexpired and expired rows
+        try (ConfigurableApplicationContext first = start(WebApplicationType.NONE, event -> { })) {
+            RepositoryRepository repositoryRepository = first.getBean(RepositoryRepository.class);
+            List<RepositoryEntity> entities = new ArrayList<>();
+            for (int i = 0; i < ENTRIES + EXPIRED_ENTRIES; i++) {
+                RepositoryEntity entity = new RepositoryEntity("warm-owner", "repo-" + i, "warm-owner/repo-" + i,
+                    "Description " + i, "https://github.com/warm-owner/repo-" + i + ".git", i,
+                    LocalDateTime.of(2020, 1, 1, 0, 0));
+                if (i >= ENTRIES) {
+                    entity.setFetchedAt(Instant.now().minus(Duration.ofDays(2)));
+                }
+                entities.add(entity);
+            }
+            repositoryRepository.saveAll(entities);
+        }
+
+        // When - The application restarts on the same files, with its web server
+        AtomicReference<WarmupResult> warmupWhenServing = new AtomicReference<>();
+        try (ConfigurableApplicationContext second = start(WebApplicationType.SERVLET, event ->
+                warmupWhenServing.set(event.getApplicationContext().getBean(CacheWarmer.class).getLastWarmup()))) {
+            // Then - The replay was over when the web server started, and every unexpired row is in memory
+            WarmupResult warmup = second.getBean(CacheWarmer.class).getLastWarmup();
+            assertNotNull(warmupWhenServing.get());
+            assertNotNull(warmup);
+            logger.info("Warm restart: {} entries in {} ms", warmup.entries(), warmup.elapsedMillis());
+            assertEquals(ENTRIES, warmup.entries());
+            assertEquals(ENTRIES, second.getBean(RepositoryL1Cache.class).estimatedSize());
+            assertNotNull(second.getBean(RepositoryL1Cache.class).get("warm-owner", "repo-0"));
+            assertEquals("Description 7",
+                second.getBean(RepositoryService.class).getRepositoryDetails("warm-owner", "repo-7").getDescription());
+        }
+    }
+
+    private ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                 ApplicationListener<WebServerInitializedEvent> webServerListener) {
+        return new SpringApplicationBuilder(GithubRepoCacheApplication.class)
+            .web(webApplicationType)
+            .listeners(webServerListener)
+            .profiles("test", "persistent")
+            .properties(
+                "server.port=0",
+                "github.cache.data-dir=" + dataDir.toAbsolutePath(),
+                "github.cache.ttl.fresh=PT1H",
+                "github.cache.ttl.stale=PT23H",
+                "github.api.base-url=http://127.0.0.1:9")
+            .run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.GithubApiService;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.service.RepositoryWriteBehind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Write-behind test: a full queue whose flush fails
+ *
+ * With a queue capacity of one, every miss flushes on the request thread.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest(properties = {
+    "github.cache.write-behind.enabled=true",
+    "github.cache.write-behind.flush-interval-ms=3600000",
+    "github.cache.write-behind.batch-size=1000",
+    "github.cache.write-behind.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RepositoryWriteBehindCapacityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RepositoryWriteBehind writeBehind;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @MockBean
+    private GithubApiService githubApiService;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+        var githubResponse = new GithubApiResponse();
+        githubResponse.setFullName("wb-owner/full-repo");
+        githubResponse.setCloneUrl("https://github.com/wb-owner/full-repo.git");
+        githubResponse.setStargazersCount(7);
+        githubResponse.setCreatedAt("2020-01-01T00:00:00Z");
+        when(githubApiService.fetchRepositoryDetails("wb-owner", "full-repo")).thenReturn(githubResponse);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reset(jdbcTemplate);
+        writeBehind.flush();
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushFailsAtCapacity_MissStillAnswered() throws Exception {
+        // Given - The database refuses every batch write
+        doThrow(new DataAccessResourceFailureException("Database unavailable")).when(jdbcTemplate)
+            .batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        // When - A miss fills the queue
+        mockMvc.perform(get("/repositories/wb-owner/full-repo"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.fullName").value("wb-owner/full-repo"));
+
+        // Then - The row is kept queued for a later flush
+        assertEquals(1, writeBehind.pendingCount());
+        assertEquals(0, repositoryRepository.count());
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.xqiii.cache.integration;
+
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.repository.RepositoryRepository;
+import com.github.xqiii.cache.service.GithubApiService;
+import com.github.xqiii.cache.service.RepositoryL1Cache;
+import com.github.xqiii.cache.service.RepositoryService;
+import com.github.xqiii.cache.service.RepositoryWriteBehind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Write-behind persistence test
+ *
+ * The periodic flush is effectively disabled so the test decides when rows are written.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+@SpringBootTest(properties = {
+    "github.cache.write-behind.enabled=true",
+    "github.cache.write-behind.flush-interval-ms=3600000",
+    "github.cache.write-behind.batch-size=1000"
+})
+@ActiveProfiles("test")
+class RepositoryWriteBehindTest {
+
+    private static final int REPOSITORIES = 25;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RepositoryWriteBehind writeBehind;
+
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+
+    @Autowired
+    private RepositoryL1Cache l1Cache;
+
+    @MockBean
+    private GithubApiService githubApiService;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind.flush();
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+        when(githubApiService.fetchRepositoryDetails(anyString(), anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(1);
+            var githubResponse = new GithubApiResponse();
+            githubResponse.setFullName("wb-owner/" + name);
+            githubResponse.setDescription("Description of " + name);
+            githubResponse.setCloneUrl("https://github.com/wb-owner/" + name + ".git");
+            githubResponse.setStargazersCount(7);
+            githubResponse.setCreatedAt("2020-01-01T00:00:00Z");
+            githubResponse.setEtag("\"" + name + "\"");
+            return githubResponse;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.flush();
+        repositoryRepository.deleteAll();
+        l1Cache.invalidateAll();
+    }
+
+    @Test
+    void testMisses_AnsweredBeforeRowsAreWritten() {
+        // When
+        for (int i = 0; i < REPOSITORIES; i++) {
+            repositoryService.getRepositoryDetails("wb-owner", "repo-" + i);
+        }
+
+        // Then - Nothing written yet, rows are queued
+        assertEquals(0, repositoryRepository.count());
+        assertEquals(REPOSITORIES, writeBehind.pendingCount());
+
+        // When - Flushed as one batch
+        assertEquals(REPOSITORIES, writeBehind.flush());
+
+        // Then
+        assertEquals(REPOSITORIES, repositoryRepository.count());
+        var entity = repositoryRepository.findByCacheKey("wb-owner/repo-3").orElseThrow();
+        assertEquals("wb-owner/repo-3", entity.getFullName());
+        assertEquals("\"repo-3\"", entity.getEtag());
+        assertNotNull(entity.getFetchedAt());
+    }
+
+    @Test
+    void testPendingRow_ServedAfterL1Eviction() {
+        // Given - A miss whose row has not been written yet
+        repositoryService.getRepositoryDetails("wb-owner", "pending-repo");
+        l1Cache.invalidateAll();
+
+        // When
+        var response = repositoryService.getRepositoryDetails("wb-owner", "pending-repo");
+
+        // Then - Served from the queue, not fetched again
+        assertEquals("wb-owner/pending-repo", response.getFullName());
+        verify(githubApiService, times(1)).fetchRepositoryDetails("wb-owner", "pending-repo");
+    }
+
+    @Test
+    void testRewrite_UpdatesExistingRow() {
+        // Given - A written row
+        repositoryService.getRepositoryDetails("wb-owner", "updated-repo");
+        writeBehind.flush();
+        Long id = repositoryRepository.findByCacheKey("wb-owner/updated-repo").orElseThrow().getId();
+
+        // When - Refreshed and written again
+        repositoryService.refreshRepositoryDetails("wb-owner", "updated-repo");
+        writeBehind.flush();
+
+        // Then - Upserted in place
+        assertEquals(1, repositoryRepository.count());
+        assertEquals(id, repositoryRepository.findByCacheKey("wb-owner/updated-repo").orElseThrow().getId());
+    }
+}
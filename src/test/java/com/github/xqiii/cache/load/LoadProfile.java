@@ -0,0 +1,54 @@
+package com.github.xqiii.cache.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test settings: request mix on the client side, behaviour of the stubbed GitHub on the other
+ *
+ * @param name                     run name, recorded in the result file
+ * @param ratePerSecond            fixed arrival rate of requests
+ * @param warmup                   leading period whose responses are not measured
+ * @param duration                 measured period after the warmup
+ * @param keys                     number of distinct repositories requested
+ * @param zipfExponent             skew of the request mix, 0 for uniform
+ * @param stubLatencyMedianMillis  median GitHub response time
+ * @param stubLatencyP99Millis     99th percentile GitHub response time (log-normal in between)
+ * @param stubErrorRate            share of GitHub calls answered with a 500
+ * @param stubRateLimit            X-RateLimit-Limit reported by the stub; remaining counts down from it
+ * @param output                   JSON result file
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public record LoadProfile(String name,
+                          int ratePerSecond,
+                          Duration warmup,
+                          Duration duration,
+                          int keys,
+                          double zipfExponent,
+                          long stubLatencyMedianMillis,
+                          long stubLatencyP99Millis,
+                          double stubErrorRate,
+                          long stubRateLimit,
+                          Path output) {
+
+    /**
+     * Read the profile from {@code load.*} system properties, falling back to the defaults
+     */
+    public static LoadProfile fromSystemProperties() {
+        String name = System.getProperty("load.name", "default");
+        return new LoadProfile(
+            name,
+            Integer.getInteger("load.rate", 500),
+            Duration.parse(System.getProperty("load.warmup", "PT5S")),
+            Duration.parse(System.getProperty("load.duration", "PT30S")),
+            Integer.getInteger("load.keys", 2000),
+            Double.parseDouble(System.getProperty("load.zipf-exponent", "0.99")),
+            Long.getLong("load.stub.latency-median-ms", 50L),
+            Long.getLong("load.stub.latency-p99-ms", 250L),
+            Double.parseDouble(System.getProperty("load.stub.error-rate", "0")),
+            Long.getLong("load.stub.rate-limit", 5000L),
+            Path.of(System.getProperty("load.output", "target/load-results/" + name + ".json"))
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.xqiii.cache.load;
+
+import java.util.Map;
+
+/**
+ * Outcome of one load test run, written as JSON
+ *
+ * Latencies are measured from each request's scheduled send time, so time spent
+ * queued behind a slow response is included rather than silently omitted.
+ *
+ * @param profile                settings the run used
+ * @param scheduled              requests scheduled during the measured period
+ * @param completed              measured requests that received a response
+ * @param achievedRatePerSecond  completed measured requests per second
+ * @param statusCounts           measured responses by HTTP status, or IO_ERROR
+ * @param latencyMillis          measured latency percentiles (p50, p90, p99, p999, max, mean)
+ * @param hitRatio               share of cache lookups answered from the cache (hit, stale, db_hit or negative)
+ * @param lookups                cache lookups by outcome during the measured period
+ * @param upstreamRequests       requests the stubbed GitHub received during the measured period
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public record LoadResult(LoadProfile profile,
+                         long scheduled,
+                         long completed,
+                         double achievedRatePerSecond,
+                         Map<String, Long> statusCounts,
+                         Map<String, Double> latencyMillis,
+                         double hitRatio,
+                         Map<String, Double> lookups,
+                         long upstreamRequests) {
+}
@@ -0,0 +1,284 @@
+package com.github.xqiii.cache.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.xqiii.cache.GithubRepoCacheApplication;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Request;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Open-model load test of the whole service against a stubbed GitHub
+ *
+ * The application is started on a random port with {@code github.api.base-url}
+ * pointing at a {@link GithubStubServer} whose latency, error rate and rate-limit
+ * headers come from the {@link LoadProfile}. Requests for Zipfian-distributed
+ * repositories are sent at a fixed rate regardless of how many are outstanding,
+ * and each latency is taken from the request's scheduled send time, so a stalled
+ * server shows up in the tail instead of slowing the load down (no coordinated
+ * omission).
+ *
+ * Run from the command line with {@code load.*} system properties; any other
+ * property, e.g. {@code -Dgithub.cache.l1.max-entries=500}, configures the application:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.github.xqiii.cache.load.LoadTestHarness -Dload.rate=1000
+ * </pre>
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public class LoadTestHarness {
+
+    private static final String IO_ERROR = "IO_ERROR";
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final LoadProfile profile;
+    private final GithubStubServer stub;
+    private final MeterRegistry meterRegistry;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+
+    private LoadTestHarness(LoadProfile profile, GithubStubServer stub, MeterRegistry meterRegistry,
+                            int port, ExecutorService executor) {
+        this.profile = profile;
+        this.stub = stub;
+        this.meterRegistry = meterRegistry;
+        this.baseUrl = "http://127.0.0.1:" + port;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(executor)
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        LoadResult result = run(profile, args);
+        System.out.printf("%s: %d/%d completed at %.1f req/s, latency %s ms, hit ratio %.3f, results in %s%n",
+            profile.name(), result.completed(), result.scheduled(), result.achievedRatePerSecond(),
+            result.latencyMillis(), result.hitRatio(), profile.output().toAbsolutePath());
+    }
+
+    /**
+     * Start the stub and the application, drive the load, and write the result file
+     *
+     * @param applicationArgs extra command-line arguments for the application, e.g. {@code --github.cache.ttl.fresh=PT1M}
+     */
+    public static LoadResult run(LoadProfile profile, String... applicationArgs) throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "load-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (GithubStubServer stub = GithubStubServer.start()) {
+            stub.setHandler(stubGithub(profile));
+            String[] args = Arrays.copyOf(applicationArgs, applicationArgs.length + 2);
+            args[applicationArgs.length] = "--server.port=0";
+            args[applicationArgs.length + 1] = "--github.api.base-url=" + stub.baseUrl();
+            try (ConfigurableApplicationContext context =
+                     new SpringApplicationBuilder(GithubRepoCacheApplication.class).run(args)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                LoadResult result = new LoadTestHarness(profile, stub, context.getBean(MeterRegistry.class),
+                    port, executor).drive();
+                write(result);
+                return result;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LoadResult drive() throws Exception {
+        ZipfianKeys keys = new ZipfianKeys(profile.keys(), profile.zipfExponent());
+        SplittableRandom random = new SplittableRandom(42);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.ratePerSecond();
+        long warmupRequests = profile.warmup().toNanos() / intervalNanos;
+        long totalRequests = warmupRequests + profile.duration().toNanos() / intervalNanos;
+
+        long[] latencies = new long[(int) (totalRequests - warmupRequests)];
+        AtomicInteger recorded = new AtomicInteger();
+        Map<String, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        List<CompletableFuture<?>> outstanding = new ArrayList<>((int) totalRequests);
+        Map<String, Double> lookupsBefore = Map.of();
+        long upstreamBefore = 0;
+
+        // One request through every layer first, so servlet and persistence initialisation is not timed
+        httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/repositories/load-owner/prime")).build(),
+            HttpResponse.BodyHandlers.discarding());
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        for (long i = 0; i < totalRequests; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            parkUntil(scheduledAt);
+            boolean measured = i >= warmupRequests;
+            if (i == warmupRequests) {
+                lookupsBefore = lookups();
+                upstreamBefore = stub.requests().size();
+            }
+
+            int rank = keys.next(random);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                    baseUrl + "/repositories/load-owner-" + (rank % 100) + "/repo-" + rank))
+                .timeout(DRAIN_TIMEOUT)
+                .GET()
+                .build();
+            outstanding.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (measured) {
+                        latencies[recorded.getAndIncrement()] = System.nanoTime() - scheduledAt;
+                        String status = response != null ? String.valueOf(response.statusCode()) : IO_ERROR;
+                        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+                    }
+                    return null;
+                }));
+        }
+        CompletableFuture.allOf(outstanding.toArray(new CompletableFuture<?>[0]))
+            .get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        long[] measured = Arrays.copyOf(latencies, recorded.get());
+        Arrays.sort(measured);
+        Map<String, Double> lookups = new TreeMap<>();
+        Map<String, Double> before = lookupsBefore;
+        lookups().forEach((result, count) -> lookups.put(result, count - before.getOrDefault(result, 0.0)));
+        Map<String, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+
+        return new LoadResult(
+            profile,
+            latencies.length,
+            measured.length,
+            measured.length / (profile.duration().toNanos() / 1e9),
+            statuses,
+            latencySummary(measured),
+            hitRatio(lookups),
+            lookups,
+            stub.requests().size() - upstreamBefore
+        );
+    }
+
+    /**
+     * Cache lookups so far by outcome, from the {@code github.cache.lookups} counters
+     */
+    private Map<String, Double> lookups() {
+        Map<String, Double> lookups = new TreeMap<>();
+        for (Counter counter : meterRegistry.find("github.cache.lookups").counters()) {
+            lookups.put(counter.getId().getTag("result"), counter.count());
+        }
+        return lookups;
+    }
+
+    /**
+     * Share of lookups answered from the cache: fresh or stale hits, database hits and known-missing answers
+     */
+    private static double hitRatio(Map<String, Double> lookups) {
+        double total = lookups.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (total == 0) {
+            return 0;
+        }
+        double hits = lookups.getOrDefault("hit", 0.0) + lookups.getOrDefault("stale", 0.0)
+            + lookups.getOrDefault("db_hit", 0.0) + lookups.getOrDefault("negative", 0.0);
+        return hits / total;
+    }
+
+    private static Map<String, Double> latencySummary(long[] sortedNanos) {
+        Map<String, Double> summary = new LinkedHashMap<>();
+        summary.put("p50", percentile(sortedNanos, 0.50));
+        summary.put("p90", percentile(sortedNanos, 0.90));
+        summary.put("p99", percentile(sortedNanos, 0.99));
+        summary.put("p999", percentile(sortedNanos, 0.999));
+        summary.put("max", sortedNanos.length == 0 ? 0 : toMillis(sortedNanos[sortedNanos.length - 1]));
+        summary.put("mean", toMillis((long) Arrays.stream(sortedNanos).average().orElse(0)));
+        return summary;
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return toMillis(sortedNanos[Math.max(0, index)]);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * GitHub stand-in: log-normal latency through the configured median and p99, random 500s,
+     * and a rate-limit budget counting down from the configured limit
+     */
+    private static Function<Request, Response> stubGithub(LoadProfile profile) {
+        double median = Math.max(1, profile.stubLatencyMedianMillis());
+        double sigma = Math.log(Math.max(median, profile.stubLatencyP99Millis()) / median) / 2.326;
+        AtomicLong remaining = new AtomicLong(profile.stubRateLimit());
+        String reset = String.valueOf(Instant.now().plus(Duration.ofHours(1)).getEpochSecond());
+        return request -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = Math.round(median * Math.exp(sigma * random.nextGaussian()));
+            long left = remaining.decrementAndGet();
+            Response response;
+            if (left < 0) {
+                response = Response.json(403, "{\"message\":\"API rate limit exceeded\"}");
+            } else if (random.nextDouble() < profile.stubErrorRate()) {
+                response = Response.json(500, "{\"message\":\"Server Error\"}");
+            } else {
+                String fullName = request.path().substring("/repos/".length());
+                response = Response.json(200, GithubStubServer.repositoryJson(fullName, fullName.length()));
+            }
+            return response
+                .withHeader("X-RateLimit-Limit", String.valueOf(profile.stubRateLimit()))
+                .withHeader("X-RateLimit-Remaining", String.valueOf(Math.max(0, left)))
+                .withHeader("X-RateLimit-Reset", reset)
+                .withDelay(delay);
+        };
+    }
+
+    private static void write(LoadResult result) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+        if (result.profile().output().getParent() != null) {
+            Files.createDirectories(result.profile().output().getParent());
+        }
+        objectMapper.writeValue(result.profile().output().toFile(), result);
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.xqiii.cache.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Short load test run checking the harness end to end
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class LoadTestHarnessTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testShortRun_WritesResultFile() throws Exception {
+        // Given - 100 requests/s over 50 repositories, the first second unmeasured
+        LoadProfile profile = new LoadProfile("smoke", 100, Duration.ofSeconds(1), Duration.ofSeconds(2),
+            50, 0.99, 5, 20, 0, 5000, tempDir.resolve("smoke.json"));
+
+        // When
+        LoadResult result = LoadTestHarness.run(profile, "--logging.level.com.github.xqiii.cache=WARN");
+
+        // Then - Every measured request completed, mostly from the cache
+        assertEquals(200, result.scheduled());
+        assertEquals(200, result.completed());
+        assertEquals(200L, result.statusCounts().get("200"));
+        assertTrue(result.hitRatio() > 0.8, "Hit ratio was " + result.hitRatio() + " " + result.lookups());
+        assertTrue(result.upstreamRequests() <= 50);
+        assertTrue(result.latencyMillis().get("p50") <= result.latencyMillis().get("p99"));
+        assertTrue(result.latencyMillis().get("p99") <= result.latencyMillis().get("p999"));
+        assertTrue(result.latencyMillis().get("p999") <= result.latencyMillis().get("max"));
+
+        // Then - The result file is machine readable
+        JsonNode json = new ObjectMapper().readTree(profile.output().toFile());
+        assertEquals("smoke", json.path("profile").path("name").asText());
+        assertEquals("PT2S", json.path("profile").path("duration").asText());
+        assertEquals(result.latencyMillis().get("p99"), json.path("latencyMillis").path("p99").asDouble());
+        assertEquals(result.hitRatio(), json.path("hitRatio").asDouble());
+    }
+
+    @Test
+    void testZipfianKeys_FavourLowRanks() {
+        // Given
+        ZipfianKeys keys = new ZipfianKeys(1000, 0.99);
+        SplittableRandom random = new SplittableRandom(1);
+
+        // When
+        int[] counts = new int[keys.size()];
+        for (int i = 0; i < 100_000; i++) {
+            counts[keys.next(random)]++;
+        }
+
+        // Then - Rank 0 is drawn about twice as often as rank 1, and far more than the tail
+        assertTrue(counts[0] > 1.7 * counts[1] && counts[0] < 2.3 * counts[1]);
+        assertTrue(counts[0] > 50 * counts[999]);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.xqiii.cache.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipfian key ranks: rank {@code k} (0-based) is drawn with probability
+ * proportional to {@code 1 / (k + 1)^exponent}
+ *
+ * The cumulative distribution is computed once, so each draw is a binary search.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public class ZipfianKeys {
+
+    private final double[] cumulative;
+
+    public ZipfianKeys(int keys, double exponent) {
+        if (keys < 1) {
+            throw new IllegalArgumentException("keys must be at least 1");
+        }
+        this.cumulative = new double[keys];
+        double sum = 0;
+        for (int rank = 0; rank < keys; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < keys; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int next(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
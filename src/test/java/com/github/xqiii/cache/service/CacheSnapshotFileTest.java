@@ -0,0 +1,108 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.dto.CachedRepository;
+import com.github.xqiii.cache.dto.RepositoryResponse;
+import com.github.xqiii.cache.service.CacheSnapshotFile.Entry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Binary cache snapshot format test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class CacheSnapshotFileTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotFileTest.class);
+
+    private static final int BENCHMARK_ENTRIES = 200_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTrip_PreservesEveryField() throws IOException {
+        // Given - Unicode, a null description and a shared owner
+        Instant fetchedAt = Instant.parse("2025-11-29T10:15:30.123Z");
+        List<Entry> entries = List.of(
+            entry("xqiii", "flow-canvas", "一个基于 React 的流程图编辑器", 12, fetchedAt),
+            entry("xqiii", "empty", null, 0, fetchedAt)
+        );
+        Path path = directory.resolve("cache.snapshot");
+
+        // When
+        CacheSnapshotFile.write(path, entries);
+        List<Entry> read = new ArrayList<>();
+        int count = CacheSnapshotFile.read(path, read::add);
+
+        // Then
+        assertEquals(2, count);
+        RepositoryResponse first = read.get(0).cached().getResponse();
+        assertEquals("xqiii", read.get(0).owner());
+        assertEquals("flow-canvas", read.get(0).repositoryName());
+        assertEquals("xqiii/flow-canvas", first.getFullName());
+        assertEquals("一个基于 React 的流程图编辑器", first.getDescription());
+        assertEquals("https://github.com/xqiii/flow-canvas.git", first.getCloneUrl());
+        assertEquals(12, first.getStars());
+        assertEquals(LocalDateTime.of(2025, 11, 25, 9, 28, 55), first.getCreatedAt());
+        assertEquals(fetchedAt, read.get(0).cached().getFetchedAt());
+        assertEquals(entries.get(0).cached().getEtag(), read.get(0).cached().getEtag());
+        assertNull(read.get(1).cached().getResponse().getDescription());
+    }
+
+    @Test
+    void testRead_RejectsForeignFile() throws IOException {
+        Path path = directory.resolve("not-a-snapshot");
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(path, entry -> { }));
+    }
+
+    @Test
+    void testBenchmark_WriteAndLoad() throws IOException {
+        // Given
+        Instant fetchedAt = Instant.now();
+        List<Entry> entries = new ArrayList<>(BENCHMARK_ENTRIES);
+        for (int i = 0; i < BENCHMARK_ENTRIES; i++) {
+            entries.add(entry("owner-" + (i % 1000), "repo-" + i, "Description of repo-" + i, i, fetchedAt));
+        }
+        Path path = directory.resolve("benchmark.snapshot");
+
+        // When
+        long writeStart = System.nanoTime();
+        CacheSnapshotFile.write(path, entries);
+        long writeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - writeStart);
+        AtomicInteger stars = new AtomicInteger();
+        long readStart = System.nanoTime();
+        int count = CacheSnapshotFile.read(path, entry -> stars.addAndGet(entry.cached().getResponse().getStars() & 1));
+        long readMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - readStart);
+
+        // Then
+        logger.info("Snapshot of {} entries: {} bytes, written in {} ms, loaded in {} ms",
+            count, Files.size(path), writeMillis, readMillis);
+        assertEquals(BENCHMARK_ENTRIES, count);
+        assertEquals(BENCHMARK_ENTRIES / 2, stars.get());
+    }
+
+    private static Entry entry(String owner, String name, String description, int stars, Instant fetchedAt) {
+        RepositoryResponse response = new RepositoryResponse(owner + "/" + name, description,
+            "https://github.com/" + owner + "/" + name + ".git", stars, LocalDateTime.of(2025, 11, 25, 9, 28, 55));
+        return new Entry(owner, name, new CachedRepository(response, fetchedAt));
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.dto.RepositoryKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consistent-hash ring unit test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of(
+        "http://node-a:8080", "http://node-b:8080", "http://node-c:8080");
+
+    @Test
+    void testOwnerOf_SpreadsKeysEvenly() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(ring.ownerOf(RepositoryKey.of("owner-" + (i % 100), "repo-" + i)), 1, Integer::sum);
+        }
+
+        // Then - Every node owns roughly a third of the keys
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 7_500 && count < 12_500, "Unbalanced: " + counts));
+    }
+
+    @Test
+    void testOwnerOf_SameForAnyNodeOrderAndKeyCase() {
+        // Given - Two nodes listing their peers in different orders
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 128);
+
+        // Then
+        for (int i = 0; i < 1000; i++) {
+            RepositoryKey key = RepositoryKey.of("owner", "repo-" + i);
+            assertEquals(ring.ownerOf(key), reordered.ownerOf(key));
+            assertEquals(ring.ownerOf(key), ring.ownerOf(RepositoryKey.of("OWNER", "Repo-" + i)));
+        }
+    }
+
+    @Test
+    void testAddNode_OnlyMovesKeysToTheNewNode() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing grown = new ConsistentHashRing(
+            List.of(NODES.get(0), NODES.get(1), NODES.get(2), "http://node-d:8080"), 128);
+
+        // When
+        int moved = 0;
+        for (int i = 0; i < 20_000; i++) {
+            RepositoryKey key = RepositoryKey.of("owner", "repo-" + i);
+            String before = ring.ownerOf(key);
+            String after = grown.ownerOf(key);
+            if (!before.equals(after)) {
+                // Then - A key only ever moves to the node that joined
+                assertEquals("http://node-d:8080", after);
+                moved++;
+            }
+        }
+
+        // Then - About a quarter of the keys moved
+        assertTrue(moved > 3_000 && moved < 7_000, "Moved " + moved);
+    }
+}
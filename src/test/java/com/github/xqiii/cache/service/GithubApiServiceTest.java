@@ -0,0 +1,326 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.client.GithubHttpClient;
+import com.github.xqiii.cache.client.GithubRateLimiter;
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker;
+import com.github.xqiii.cache.client.UpstreamConcurrencyLimiter;
+import com.github.xqiii.cache.client.UpstreamHedger;
+import com.github.xqiii.cache.client.UpstreamLatencyTracker;
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.exception.BizException;
+import com.github.xqiii.cache.exception.RateLimitedException;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GitHub API service test against a local stub server
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class GithubApiServiceTest {
+
+    private static final String REPOSITORY_PATH = "/repos/octocat/hello-world";
+
+    private GithubStubServer stub;
+    private GithubHttpClient githubHttpClient;
+    private GithubApiService githubApiService;
+
+    @BeforeEach
+    void setUp() {
+        stub = GithubStubServer.start();
+        githubHttpClient = new GithubHttpClient("jdk", 1000, 2000, 10, Duration.ofSeconds(30));
+        githubApiService = new GithubApiService(stub.baseUrl(), githubHttpClient,
+            new UpstreamConcurrencyLimiter(8, 1000), rateLimiter(List.of()),
+            circuitBreaker(), hedger(false));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        githubHttpClient.close();
+        stub.close();
+    }
+
+    @Test
+    void testFetchRepositoryDetails_CapturesValidators() {
+        // Given
+        stub.setHandler(request -> Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5))
+            .withHeader("ETag", "\"abc123\"")
+            .withHeader("Last-Modified", "Wed, 01 Jan 2025 00:00:00 GMT"));
+
+        // When
+        GithubApiResponse response = githubApiService.fetchRepositoryDetails("octocat", "hello-world");
+
+        // Then
+        assertEquals("octocat/hello-world", response.getFullName());
+        assertEquals(5, response.getStargazersCount());
+        assertEquals("\"abc123\"", response.getEtag());
+        assertEquals("Wed, 01 Jan 2025 00:00:00 GMT", response.getLastModified());
+    }
+
+    @Test
+    void testFetchRepositoryDetailsIfModified_NotModified() {
+        // Given
+        stub.setHandler(request -> "\"abc123\"".equals(request.headers().getFirst("If-None-Match"))
+            ? Response.status(304)
+            : Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5)));
+
+        // When
+        Optional<GithubApiResponse> response = githubApiService.fetchRepositoryDetailsIfModified(
+            "octocat", "hello-world", "\"abc123\"", "Wed, 01 Jan 2025 00:00:00 GMT");
+
+        // Then
+        assertTrue(response.isEmpty());
+        GithubStubServer.Request request = stub.requests().get(0);
+        assertEquals("\"abc123\"", request.headers().getFirst("If-None-Match"));
+        assertEquals("Wed, 01 Jan 2025 00:00:00 GMT", request.headers().getFirst("If-Modified-Since"));
+    }
+
+    @Test
+    void testFetchRepositoryDetailsIfModified_Modified() {
+        // Given
+        stub.setHandler(request -> Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 6))
+            .withHeader("ETag", "\"def456\""));
+
+        // When
+        Optional<GithubApiResponse> response = githubApiService.fetchRepositoryDetailsIfModified(
+            "octocat", "hello-world", "\"abc123\"", null);
+
+        // Then
+        assertTrue(response.isPresent());
+        assertEquals(6, response.get().getStargazersCount());
+        assertEquals("\"def456\"", response.get().getEtag());
+        assertNull(response.get().getLastModified());
+    }
+
+    @Test
+    void testFetchRepositoryDetails_NotFound() {
+        // Given
+        stub.setHandler(request -> Response.json(404, "{\"message\":\"Not Found\"}"));
+
+        // When & Then
+        BizException exception = assertThrows(BizException.class,
+            () -> githubApiService.fetchRepositoryDetails("octocat", "hello-world"));
+        assertEquals("REPOSITORY_NOT_FOUND", exception.getErrorCode());
+        assertEquals(1, stub.requestCount(REPOSITORY_PATH));
+    }
+
+    @Test
+    void testRateLimitExhausted_FailsFastWithoutCallingGitHub() {
+        // Given - GitHub reports the last request of the window
+        long resetEpochSeconds = System.currentTimeMillis() / 1000 + 120;
+        stub.setHandler(request -> Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5))
+            .withHeader("X-RateLimit-Limit", "60")
+            .withHeader("X-RateLimit-Remaining", "0")
+            .withHeader("X-RateLimit-Reset", String.valueOf(resetEpochSeconds)));
+        githubApiService.fetchRepositoryDetails("octocat", "hello-world");
+
+        // When & Then - The next call is rejected locally with the time to the reset
+        RateLimitedException exception = assertThrows(RateLimitedException.class,
+            () -> githubApiService.fetchRepositoryDetails("octocat", "hello-world"));
+        assertEquals("GITHUB_RATE_LIMITED", exception.getErrorCode());
+        assertEquals(503, exception.getHttpStatus());
+        assertTrue(exception.getRetryAfterSeconds() > 100 && exception.getRetryAfterSeconds() <= 121);
+        assertEquals(1, stub.requestCount(REPOSITORY_PATH));
+    }
+
+    @Test
+    void testSecondaryRateLimit_RetryAfterHonoured() {
+        // Given - GitHub answers 403 with Retry-After
+        stub.setHandler(request -> Response.json(403, "{\"message\":\"secondary rate limit\"}")
+            .withHeader("Retry-After", "30"));
+
+        // When & Then
+        RateLimitedException first = assertThrows(RateLimitedException.class,
+            () -> githubApiService.fetchRepositoryDetails("octocat", "hello-world"));
+        assertTrue(first.getRetryAfterSeconds() >= 29 && first.getRetryAfterSeconds() <= 30);
+        assertThrows(RateLimitedException.class,
+            () -> githubApiService.fetchRepositoryDetails("octocat", "hello-world"));
+        assertEquals(1, stub.requestCount(REPOSITORY_PATH));
+    }
+
+    @Test
+    void testTokenPool_RoutesToTokenWithMostBudget() {
+        // Given - Two tokens, one nearly exhausted
+        long resetEpochSeconds = System.currentTimeMillis() / 1000 + 3600;
+        stub.setHandler(request -> {
+            boolean low = "Bearer low-token".equals(request.headers().getFirst("Authorization"));
+            return Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5))
+                .withHeader("X-RateLimit-Limit", "5000")
+                .withHeader("X-RateLimit-Remaining", low ? "1" : "4000")
+                .withHeader("X-RateLimit-Reset", String.valueOf(resetEpochSeconds));
+        });
+        GithubApiService pooled = pooledService(List.of("low-token", "high-token"));
+
+        // When - Both tokens are probed, then ten more calls are made
+        for (int i = 0; i < 12; i++) {
+            pooled.fetchRepositoryDetails("octocat", "hello-world");
+        }
+
+        // Then - Only the probe went out with the nearly exhausted token
+        long lowTokenCalls = stub.requests().stream()
+            .filter(request -> "Bearer low-token".equals(request.headers().getFirst("Authorization")))
+            .count();
+        assertEquals(1, lowTokenCalls);
+        assertEquals(12, stub.requestCount(REPOSITORY_PATH));
+    }
+
+    @Test
+    void testTokenPool_RejectedTokenRemovedFromRotation() {
+        // Given - GitHub rejects one of the tokens
+        stub.setHandler(request -> "Bearer revoked-token".equals(request.headers().getFirst("Authorization"))
+            ? Response.json(401, "{\"message\":\"Bad credentials\"}")
+            : Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5)));
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("revoked-token", "valid-token"));
+        GithubApiService pooled = new GithubApiService(stub.baseUrl(), githubHttpClient,
+            new UpstreamConcurrencyLimiter(8, 1000), rateLimiter, circuitBreaker(), hedger(false));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertEquals("octocat/hello-world", pooled.fetchRepositoryDetails("octocat", "hello-world").getFullName());
+        }
+
+        // Then - The revoked token was tried once and is out of rotation
+        long revokedCalls = stub.requests().stream()
+            .filter(request -> "Bearer revoked-token".equals(request.headers().getFirst("Authorization")))
+            .count();
+        assertEquals(1, revokedCalls);
+        assertEquals(1, rateLimiter.getEnabledTokenCount());
+    }
+
+    @Test
+    void testTokenPool_ResourceForbiddenLeavesPoolIntact() {
+        // Given - An organization enforcing SAML refuses every token for one repository
+        stub.setHandler(request -> "/repos/saml-org/private-repo".equals(request.path())
+            ? Response.json(403, "{\"message\":\"Resource protected by organization SAML enforcement.\"}")
+                .withHeader("X-GitHub-SSO", "required; url=https://github.com/orgs/saml-org/sso")
+            : Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5)));
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("first-token", "second-token"));
+        GithubApiService pooled = new GithubApiService(stub.baseUrl(), githubHttpClient,
+            new UpstreamConcurrencyLimiter(8, 1000), rateLimiter, circuitBreaker(), hedger(false));
+
+        // When
+        BizException exception = assertThrows(BizException.class,
+            () -> pooled.fetchRepositoryDetails("saml-org", "private-repo"));
+
+        // Then - The call failed on its own, without trying the other token or disabling either
+        assertEquals("GITHUB_API_ERROR", exception.getErrorCode());
+        assertEquals(1, stub.requestCount("/repos/saml-org/private-repo"));
+        assertEquals(2, rateLimiter.getEnabledTokenCount());
+        assertEquals("octocat/hello-world", pooled.fetchRepositoryDetails("octocat", "hello-world").getFullName());
+    }
+
+    @Test
+    void testTokenPool_RejectedTokenReturnsAfterDisableDuration() throws InterruptedException {
+        // Given - A token rejected once, taken out of rotation for 200 ms
+        AtomicInteger rejections = new AtomicInteger();
+        stub.setHandler(request -> "Bearer flaky-token".equals(request.headers().getFirst("Authorization"))
+                && rejections.getAndIncrement() == 0
+            ? Response.json(401, "{\"message\":\"Bad credentials\"}")
+            : Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5)));
+        GithubRateLimiter rateLimiter = new GithubRateLimiter(List.of("flaky-token", "valid-token"), 0.2, 1000,
+            Duration.ofMillis(200));
+        GithubApiService pooled = new GithubApiService(stub.baseUrl(), githubHttpClient,
+            new UpstreamConcurrencyLimiter(8, 1000), rateLimiter, circuitBreaker(), hedger(false));
+        for (int i = 0; i < 3; i++) {
+            pooled.fetchRepositoryDetails("octocat", "hello-world");
+        }
+        assertEquals(1, rateLimiter.getEnabledTokenCount());
+
+        // When
+        Thread.sleep(300);
+
+        // Then - The token is back in rotation
+        assertEquals(2, rateLimiter.getEnabledTokenCount());
+    }
+
+    @Test
+    void testHedging_SlowCallAnsweredByHedge() {
+        // Given - A hedging service that has seen 20 fast calls
+        AtomicInteger calls = new AtomicInteger();
+        stub.setHandler(request -> {
+            Response response = Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5));
+            // The 21st request stalls, any hedge for it answers at once
+            return calls.incrementAndGet() == 21 ? response.withDelay(1500) : response;
+        });
+        UpstreamHedger hedger = hedger(true);
+        GithubApiService hedged = new GithubApiService(stub.baseUrl(), githubHttpClient,
+            new UpstreamConcurrencyLimiter(8, 1000), rateLimiter(List.of()),
+            circuitBreaker(), hedger);
+        for (int i = 0; i < 20; i++) {
+            hedged.fetchRepositoryDetails("octocat", "hello-world");
+        }
+
+        // When
+        long start = System.nanoTime();
+        GithubApiResponse response = hedged.fetchRepositoryDetails("octocat", "hello-world");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then - The hedge answered long before the stalled request
+        assertEquals("octocat/hello-world", response.getFullName());
+        assertTrue(elapsedMillis < 1000, "Hedged call took " + elapsedMillis + " ms");
+        assertEquals(1, hedger.getHedgeCount());
+        assertEquals(22, stub.requestCount(REPOSITORY_PATH));
+    }
+
+    @Test
+    void testHedging_SkippedWithoutRateLimitBudget() {
+        // Given - A hedging service whose budget is one call above the 20% user-facing reserve
+        long resetEpochSeconds = System.currentTimeMillis() / 1000 + 3600;
+        AtomicInteger calls = new AtomicInteger();
+        stub.setHandler(request -> {
+            Response response = Response.json(200, GithubStubServer.repositoryJson("octocat/hello-world", 5))
+                .withHeader("X-RateLimit-Limit", "5000")
+                .withHeader("X-RateLimit-Remaining", "1001")
+                .withHeader("X-RateLimit-Reset", String.valueOf(resetEpochSeconds));
+            return calls.incrementAndGet() == 21 ? response.withDelay(300) : response;
+        });
+        UpstreamHedger hedger = hedger(true);
+        GithubApiService hedged = new GithubApiService(stub.baseUrl(), githubHttpClient,
+            new UpstreamConcurrencyLimiter(8, 1000), rateLimiter(List.of("low-budget-token")),
+            circuitBreaker(), hedger);
+        for (int i = 0; i < 20; i++) {
+            hedged.fetchRepositoryDetails("octocat", "hello-world");
+        }
+
+        // When
+        GithubApiResponse response = hedged.fetchRepositoryDetails("octocat", "hello-world");
+
+        // Then - The slow call was answered by its only attempt
+        assertEquals("octocat/hello-world", response.getFullName());
+        assertEquals(0, hedger.getHedgeCount());
+        assertEquals(21, stub.requestCount(REPOSITORY_PATH));
+    }
+
+    private GithubApiService pooledService(List<String> tokens) {
+        return new GithubApiService(stub.baseUrl(), githubHttpClient,
+            new UpstreamConcurrencyLimiter(8, 1000), rateLimiter(tokens),
+            circuitBreaker(), hedger(false));
+    }
+
+    private static GithubRateLimiter rateLimiter(List<String> tokens) {
+        return new GithubRateLimiter(tokens, 0.2, 1000, Duration.ofMinutes(10));
+    }
+
+    private static UpstreamHedger hedger(boolean enabled) {
+        return new UpstreamHedger(new UpstreamLatencyTracker(1000, 20), enabled, 0.95, 50, 0.05);
+    }
+
+    private static UpstreamCircuitBreaker circuitBreaker() {
+        return new UpstreamCircuitBreaker(true, 20, 10, 0.5, 3000, 0.8, Duration.ofSeconds(30), 3);
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.xqiii.cache.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.xqiii.cache.client.GithubHttpClient;
+import com.github.xqiii.cache.client.GithubRateLimiter;
+import com.github.xqiii.cache.client.UpstreamCircuitBreaker;
+import com.github.xqiii.cache.client.UpstreamConcurrencyLimiter;
+import com.github.xqiii.cache.dto.GithubApiResponse;
+import com.github.xqiii.cache.exception.BizException;
+import com.github.xqiii.cache.support.GithubStubServer;
+import com.github.xqiii.cache.support.GithubStubServer.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GraphQL batch fetcher test against a local stub GraphQL endpoint
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class GithubGraphqlBatcherTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GithubStubServer stub;
+    private GithubHttpClient githubHttpClient;
+    private GithubGraphqlBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        stub = GithubStubServer.start();
+        stub.setHandler(GithubGraphqlBatcherTest::answerGraphql);
+        githubHttpClient = new GithubHttpClient("jdk", 1000, 2000, 10, Duration.ofSeconds(30));
+        batcher = newBatcher(new UpstreamConcurrencyLimiter(8, 1000), List.of("graphql-token"), 100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        batcher.shutdown();
+        githubHttpClient.close();
+        stub.close();
+    }
+
+    @Test
+    void testConcurrentFetches_CoalescedIntoOneQuery() throws Exception {
+        // When - Concurrent fetches inside one batch window
+        int repositories = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(repositories);
+        List<Future<GithubApiResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < repositories; i++) {
+                String name = "repo-" + i;
+                futures.add(executor.submit(() -> batcher.fetchRepositoryDetails("octocat", name)));
+            }
+
+            // Then - Each caller gets its own repository
+            for (int i = 0; i < repositories; i++) {
+                GithubApiResponse response = futures.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals("octocat/repo-" + i, response.getFullName());
+                assertEquals("https://github.com/octocat/repo-" + i + ".git", response.getCloneUrl());
+                assertEquals(i, response.getStargazersCount());
+                assertEquals("2020-01-01T00:00:00Z", response.getCreatedAt());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then - Far fewer upstream requests than repositories
+        long graphqlRequests = stub.requestCount("/graphql");
+        assertTrue(graphqlRequests >= 1 && graphqlRequests <= 2, "Expected coalesced queries, got " + graphqlRequests);
+        assertTrue(stub.requests().get(0).body().contains("stargazerCount"));
+        assertEquals("Bearer graphql-token", stub.requests().get(0).headers().getFirst("Authorization"));
+    }
+
+    @Test
+    void testMissingRepository_ReportedAsNotFound() {
+        BizException exception = assertThrows(BizException.class,
+            () -> batcher.fetchRepositoryDetails("octocat", "missing"));
+        assertEquals("REPOSITORY_NOT_FOUND", exception.getErrorCode());
+    }
+
+    @Test
+    void testNoToken_FailsAtStartup() {
+        // When / Then - GitHub would reject every query, so the batcher is never created
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> newBatcher(new UpstreamConcurrencyLimiter(8, 1000), List.of(), 100));
+        assertTrue(exception.getMessage().contains("github.api.tokens"));
+    }
+
+    @Test
+    void testQueryWaitingForInFlightSlot_CallerWaitsForIt() throws Exception {
+        // Given - One in-flight slot, and queries that take 1.5 s of the 2 s read timeout
+        stub.setHandler(request -> answerGraphql(request).withDelay(1500));
+        batcher.shutdown();
+        batcher = newBatcher(new UpstreamConcurrencyLimiter(1, 2000), List.of("graphql-token"), 1);
+
+        // When - Two single-repository queries, the second waiting for the first one's slot
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<GithubApiResponse> first = executor.submit(() -> batcher.fetchRepositoryDetails("octocat", "repo-1"));
+            Future<GithubApiResponse> second = executor.submit(() -> batcher.fetchRepositoryDetails("octocat", "repo-2"));
+
+            // Then - The second caller's wait covered the slot wait as well as the call
+            assertEquals("octocat/repo-1", first.get(10, TimeUnit.SECONDS).getFullName());
+            assertEquals("octocat/repo-2", second.get(10, TimeUnit.SECONDS).getFullName());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, stub.requestCount("/graphql"));
+    }
+
+    private GithubGraphqlBatcher newBatcher(UpstreamConcurrencyLimiter concurrencyLimiter, List<String> tokens,
+                                            int maxBatchSize) {
+        return new GithubGraphqlBatcher(githubHttpClient, concurrencyLimiter,
+            new GithubRateLimiter(tokens, 0.2, 1000, Duration.ofMinutes(10)),
+            new UpstreamCircuitBreaker(true, 20, 10, 0.5, 3000, 0.8, Duration.ofSeconds(30), 3),
+            stub.baseUrl() + "/graphql", 50, maxBatchSize, 1000, 2000, 2000);
+    }
+
+    /**
+     * Answer an aliased repository query: stars are taken from the numeric suffix
+     * of the name, and repositories named "missing" do not exist
+     */
+    private static Response answerGraphql(GithubStubServer.Request request) {
+        try {
+            JsonNode variables = objectMapper.readTree(request.body()).path("variables");
+            ObjectNode data = objectMapper.createObjectNode();
+            List<Map<String, Object>> errors = new ArrayList<>();
+            Iterator<String> names = variables.fieldNames();
+            while (names.hasNext()) {
+                String variable = names.next();
+                if (!variable.startsWith("o")) {
+                    continue;
+                }
+                String index = variable.substring(1);
+                String alias = "r" + index;
+                String owner = variables.path("o" + index).asText();
+                String name = variables.path("n" + index).asText();
+                if ("missing".equals(name)) {
+                    data.putNull(alias);
+                    errors.add(Map.of("type", "NOT_FOUND", "path", List.of(alias),
+                        "message", "Could not resolve to a Repository"));
+                    continue;
+                }
+                ObjectNode repository = data.putObject(alias);
+                repository.put("nameWithOwner", owner + "/" + name);
+                repository.put("description", "Description of " + name);
+                repository.put("url", "https://github.com/" + owner + "/" + name);
+                repository.put("stargazerCount", Integer.parseInt(name.substring(name.lastIndexOf('-') + 1)));
+                repository.put("createdAt", "2020-01-01T00:00:00Z");
+            }
+            ObjectNode body = objectMapper.createObjectNode();
+            body.set("data", data);
+            if (!errors.isEmpty()) {
+                body.set("errors", objectMapper.valueToTree(errors));
+            }
+            return Response.json(200, objectMapper.writeValueAsString(body));
+        } catch (Exception e) {
+            return Response.json(500, "{\"message\":\"" + e.getMessage() + "\"}");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.xqiii.cache.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Negative cache and Bloom filter test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class NegativeCacheTest {
+
+    private final NegativeCache negativeCache = new NegativeCache(true, Duration.ofMillis(200), 1000, 0.01);
+
+    @AfterEach
+    void tearDown() {
+        negativeCache.shutdown();
+    }
+
+    @Test
+    void testMissingKeyRememberedUntilTtl() throws Exception {
+        // Given
+        negativeCache.recordMissing("ghost/repo");
+
+        // Then - Known missing within the TTL, forgotten after it
+        assertTrue(negativeCache.isKnownMissing("ghost/repo"));
+        assertFalse(negativeCache.isKnownMissing("octocat/hello-world"));
+        Thread.sleep(300);
+        assertFalse(negativeCache.isKnownMissing("ghost/repo"));
+    }
+
+    @Test
+    void testBloomFilterFalsePositiveRate() {
+        // Given - A filter filled to its expected capacity
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("missing/repo-" + i);
+        }
+
+        // Then - No false negatives, and false positives near the target rate
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("missing/repo-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("present/repo-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "False-positive rate too high: " + falsePositives + " of 100000");
+    }
+
+    @Test
+    void testRebuildDropsExpiredKeys() throws Exception {
+        // Given - A key recorded, then expired
+        negativeCache.recordMissing("expired/repo");
+        Thread.sleep(300);
+
+        // When
+        negativeCache.rebuildFilter();
+        negativeCache.recordMissing("current/repo");
+
+        // Then
+        assertFalse(negativeCache.isKnownMissing("expired/repo"));
+        assertTrue(negativeCache.isKnownMissing("current/repo"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.service.PopularityTracker.HotKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Count-min popularity tracker test
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class PopularityTrackerTest {
+
+    private final PopularityTracker tracker = new PopularityTracker(4, 1024, 16, Duration.ofHours(1));
+
+    @AfterEach
+    void tearDown() {
+        tracker.shutdown();
+    }
+
+    @Test
+    void testHeavyHittersRankedAboveLongTail() {
+        // Given - Three hot keys among thousands of one-off lookups
+        for (int i = 0; i < 5000; i++) {
+            tracker.record("tail/repo-" + i);
+            if (i % 10 == 0) {
+                tracker.record("hot/first");
+            }
+            if (i % 20 == 0) {
+                tracker.record("hot/second");
+            }
+            if (i % 40 == 0) {
+                tracker.record("hot/third");
+            }
+        }
+
+        // When
+        List<HotKey> top = tracker.top(3);
+
+        // Then - The hot keys lead in order, with estimates never below the true counts
+        assertEquals(List.of("hot/first", "hot/second", "hot/third"), top.stream().map(HotKey::key).toList());
+        assertTrue(top.get(0).count() >= 500);
+        assertTrue(top.get(1).count() >= 250);
+        assertTrue(top.get(2).count() >= 125);
+    }
+
+    @Test
+    void testDecayHalvesCounts() {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            tracker.record("decay/repo");
+        }
+        tracker.record("decay/once");
+
+        // When
+        tracker.decay();
+
+        // Then - Counts are halved and keys that fell to zero are dropped
+        assertEquals(50, tracker.estimate("decay/repo"));
+        assertEquals(0, tracker.estimate("decay/once"));
+        assertEquals(List.of("decay/repo"), tracker.top(10).stream().map(HotKey::key).toList());
+    }
+
+    @Test
+    void testConcurrentRecordsAreNotLost() throws Exception {
+        // Given
+        int threads = 8;
+        int recordsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - Many threads record the same key at once
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < recordsPerThread; i++) {
+                        tracker.record("concurrent/repo");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertEquals((long) threads * recordsPerThread, tracker.estimate("concurrent/repo"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.xqiii.cache.service;
+
+import com.github.xqiii.cache.dto.RepositoryKey;
+import com.github.xqiii.cache.dto.RepositorySnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Write-behind flush ordering test against a mocked JdbcTemplate
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+class RepositoryWriteBehindFlushTest {
+
+    private static final Instant OLDER = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant NEWER = Instant.parse("2025-01-01T00:01:00Z");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<Instant> written = new ArrayList<>();
+    private RepositoryWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOverlappingFlushes_WriteRowsInQueueOrder() throws Exception {
+        // Given - Writing the older row takes a while
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            Collection<Map.Entry<RepositoryKey, RepositorySnapshot>> batch = invocation.getArgument(1);
+            for (Map.Entry<RepositoryKey, RepositorySnapshot> entry : batch) {
+                Instant fetchedAt = entry.getValue().getFetchedAt();
+                if (fetchedAt.equals(OLDER)) {
+                    Thread.sleep(300);
+                }
+                synchronized (written) {
+                    written.add(fetchedAt);
+                }
+            }
+            return new int[0][];
+        });
+        writeBehind = new RepositoryWriteBehind(jdbcTemplate, 3_600_000, 100, 10_000);
+        writeBehind.enqueue(row(OLDER));
+        CompletableFuture<Integer> slowFlush = CompletableFuture.supplyAsync(writeBehind::flush);
+        Thread.sleep(100);
+
+        // When - A newer version is queued and flushed while the older one is being written
+        writeBehind.enqueue(row(NEWER));
+        writeBehind.flush();
+        slowFlush.get(5, TimeUnit.SECONDS);
+
+        // Then - The newer version is written last
+        assertEquals(List.of(OLDER, NEWER), written);
+    }
+
+    private static RepositorySnapshot row(Instant fetchedAt) {
+        return new RepositorySnapshot("wb-owner", "wb-repo", "wb-owner/wb-repo", "Write-behind row",
+            "https://github.com/wb-owner/wb-repo.git", 1, LocalDateTime.of(2020, 1, 1, 0, 0), fetchedAt,
+            null, null);
+    }
+}
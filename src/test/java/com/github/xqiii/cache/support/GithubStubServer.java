@@ -0,0 +1,159 @@
+package com.github.xqiii.cache.support;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Local stand-in for api.github.com
+ *
+ * Each test installs a handler mapping the received request to a canned
+ * response (status, headers, body and an optional delay). Every request is
+ * recorded so tests can assert on what the client actually sent.
+ *
+ * @author xiuqiii
+ * @date 2025-11-29
+ */
+public class GithubStubServer implements AutoCloseable {
+
+    /**
+     * Request as received by the stub
+     */
+    public record Request(String method, String path, Headers headers, String body, int remotePort) {
+    }
+
+    /**
+     * Canned response returned by the stub
+     */
+    public record Response(int status, Map<String, String> headers, String body, long delayMillis) {
+
+        public static Response json(int status, String body) {
+            return new Response(status, Map.of("Content-Type", "application/json"), body, 0);
+        }
+
+        public static Response status(int status) {
+            return new Response(status, Map.of(), null, 0);
+        }
+
+        public Response withHeader(String name, String value) {
+            Map<String, String> merged = new LinkedHashMap<>(headers);
+            merged.put(name, value);
+            return new Response(status, merged, body, delayMillis);
+        }
+
+        public Response withDelay(long delayMillis) {
+            return new Response(status, headers, body, delayMillis);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private volatile Function<Request, Response> handler = request -> Response.status(404);
+
+    private GithubStubServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "github-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public static GithubStubServer start() {
+        try {
+            GithubStubServer stub = new GithubStubServer();
+            stub.server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start GitHub stub server", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void setHandler(Function<Request, Response> handler) {
+        this.handler = handler;
+    }
+
+    public List<Request> requests() {
+        return requests;
+    }
+
+    public long requestCount(String path) {
+        return requests.stream().filter(request -> request.path().equals(path)).count();
+    }
+
+    /**
+     * Number of distinct client connections the recorded requests arrived on
+     */
+    public long connectionCount() {
+        return requests.stream().mapToInt(Request::remotePort).distinct().count();
+    }
+
+    /**
+     * Minimal GitHub REST repository payload
+     */
+    public static String repositoryJson(String fullName, int stars) {
+        return String.format(
+            "{\"full_name\":\"%s\",\"description\":\"Description of %s\","
+                + "\"clone_url\":\"https://github.com/%s.git\",\"stargazers_count\":%d,"
+                + "\"created_at\":\"2020-01-01T00:00:00Z\"}",
+            fullName, fullName, fullName, stars);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Request request = new Request(
+                exchange.getRequestMethod(),
+                exchange.getRequestURI().getPath(),
+                exchange.getRequestHeaders(),
+                body,
+                exchange.getRemoteAddress().getPort()
+            );
+            requests.add(request);
+
+            Response response = handler.apply(request);
+            if (response.delayMillis() > 0) {
+                try {
+                    Thread.sleep(response.delayMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            response.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            byte[] bytes = response.body() == null ? new byte[0] : response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.status(), bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        }
+    }
+}